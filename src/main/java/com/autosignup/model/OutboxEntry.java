@@ -0,0 +1,11 @@
+package com.autosignup.model;
+
+/**
+ * A claimed outbox row together with the appointment it belongs to.
+ */
+public record OutboxEntry(long id, long appointmentId, Kind kind, String payload, int attempts, Appointment appointment) {
+
+    public enum Kind {
+        CALENDAR_EVENT, CONFIRMATION_EMAIL
+    }
+}
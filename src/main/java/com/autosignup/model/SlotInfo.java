@@ -7,7 +7,14 @@ import java.time.LocalDateTime;
 public record SlotInfo (ElementHandle element, String day, String time,
                         LocalDateTime start, LocalDateTime end, 
                         boolean available, AppointmentType appointmentType,
-                        String sourceUrl) {
+                        String sourceUrl, String locator) {
+
+    public SlotInfo(ElementHandle element, String day, String time,
+                    LocalDateTime start, LocalDateTime end,
+                    boolean available, AppointmentType appointmentType,
+                    String sourceUrl) {
+        this(element, day, time, start, end, available, appointmentType, sourceUrl, null);
+    }
 
     @Override
     public String toString() {
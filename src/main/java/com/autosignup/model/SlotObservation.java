@@ -0,0 +1,15 @@
+package com.autosignup.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * One slot as a scan of {@code siteUrl} saw it at {@code seenAt}.
+ */
+public record SlotObservation(String siteUrl, AppointmentType appointmentType, LocalDateTime start,
+                              LocalDateTime end, boolean available, Instant seenAt) {
+
+    public static SlotObservation of(SlotInfo slot, String siteUrl, Instant seenAt) {
+        return new SlotObservation(siteUrl, slot.appointmentType(), slot.start(), slot.end(), slot.available(), seenAt);
+    }
+}
@@ -0,0 +1,9 @@
+package com.autosignup.model;
+
+import java.time.Instant;
+
+/**
+ * Outcome of one release-time snipe. {@code releaseToClickMs} is -1 when no signup button was clicked.
+ */
+public record SnipeResult(String navigator, Instant releaseAt, int refreshes, long releaseToClickMs, Appointment booked) {
+}
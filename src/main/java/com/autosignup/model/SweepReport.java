@@ -0,0 +1,24 @@
+package com.autosignup.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merged outcome of one concurrent sweep over all navigators. Stragglers finished but used more than the
+ * straggler threshold; skipped navigators were still running from an earlier sweep. Timed-out navigators ran
+ * past their budget: what they booked before stopping is included, or in the first sweep after they return.
+ */
+public record SweepReport(
+        List<Appointment> appointments,
+        Map<String, Long> durationsMs,
+        List<String> stragglers,
+        List<String> timedOut,
+        List<String> failed,
+        List<String> skipped
+) {
+    @Override
+    public String toString() {
+        return String.format("%d appointment(s), durations=%s, stragglers=%s, timedOut=%s, failed=%s, skipped=%s",
+                appointments.size(), durationsMs, stragglers, timedOut, failed, skipped);
+    }
+}
@@ -3,5 +3,9 @@ package com.autosignup.model;
 
 import com.autosignup.model.protocol.SignupProtocol;
 
-public record WebsiteSpecs(SignupProtocol protocol, String url, AppointmentType appointmentType) {
-}
\ No newline at end of file
+public record WebsiteSpecs(SignupProtocol protocol, String url, AppointmentType appointmentType, String apiUrl) {
+
+    public WebsiteSpecs(SignupProtocol protocol, String url, AppointmentType appointmentType) {
+        this(protocol, url, appointmentType, null);
+    }
+}
@@ -0,0 +1,142 @@
+package com.autosignup.model.config;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The slot preferences of a navigator compiled into sorted, merged minute-of-week windows. An appointment
+ * matches if it overlaps a window on the day it starts; a lookup is a binary search over two int arrays.
+ * The unmerged windows are kept in config order too, since earlier entries are preferred.
+ */
+public final class AvailabilityMatcher {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Parallel arrays of disjoint windows [starts[i], ends[i]), sorted by start
+    private final int[] starts;
+    private final int[] ends;
+    // One window per config entry, in config order
+    private final int[][] entries;
+
+    private AvailabilityMatcher(int[] starts, int[] ends, int[][] entries) {
+        this.starts = starts;
+        this.ends = ends;
+        this.entries = entries;
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the first entry with an unknown day, an unparseable time, or an
+     *                                  end that is not after its start
+     */
+    public static AvailabilityMatcher compile(List<SlotConfig> slots) {
+        int[][] windows = new int[slots.size()][];
+        for (int i = 0; i < slots.size(); i++) {
+            windows[i] = window(slots.get(i));
+        }
+        int[][] entries = windows.clone();
+        Arrays.sort(windows, Comparator.comparingInt(w -> w[0]));
+
+        int[] starts = new int[windows.length];
+        int[] ends = new int[windows.length];
+        int count = 0;
+        for (int[] window : windows) {
+            if (count > 0 && window[0] <= ends[count - 1]) {
+                ends[count - 1] = Math.max(ends[count - 1], window[1]);
+            } else {
+                starts[count] = window[0];
+                ends[count] = window[1];
+                count++;
+            }
+        }
+        return new AvailabilityMatcher(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), entries);
+    }
+
+    public boolean matches(LocalDateTime start, LocalDateTime end) {
+        int from = fromMinute(start);
+        int to = toMinute(start, end, from);
+
+        // Last window starting before the appointment ends; earlier windows end before this one starts
+        int low = 0;
+        int high = starts.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < to) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return candidate >= 0 && ends[candidate] > from;
+    }
+
+    /**
+     * Index of the first config entry the appointment matches, or -1 if none does.
+     */
+    public int preferenceOf(LocalDateTime start, LocalDateTime end) {
+        int from = fromMinute(start);
+        int to = toMinute(start, end, from);
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i][0] < to && entries[i][1] > from) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    private static int fromMinute(LocalDateTime start) {
+        return (start.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + start.getHour() * 60 + start.getMinute();
+    }
+
+    // End minute, rounded up and clipped to the end of the start day
+    private static int toMinute(LocalDateTime start, LocalDateTime end, int from) {
+        long seconds = end.toEpochSecond(ZoneOffset.UTC) - start.toEpochSecond(ZoneOffset.UTC) + start.getSecond();
+        long minutes = Math.max(1, (seconds + 59) / 60);
+        int dayEnd = (from / MINUTES_PER_DAY + 1) * MINUTES_PER_DAY;
+        return (int) Math.min(dayEnd, from + minutes);
+    }
+
+    private static int[] window(SlotConfig slot) {
+        try {
+            int day = parseDay(slot.day()).getValue() - 1;
+            LocalTime start = LocalTime.parse(slot.start());
+            LocalTime end = LocalTime.parse(slot.end());
+            if (!end.isAfter(start)) {
+                throw new IllegalArgumentException("end must be after start");
+            }
+            int base = day * MINUTES_PER_DAY;
+            return new int[]{base + start.getHour() * 60 + start.getMinute(),
+                    base + end.getHour() * 60 + end.getMinute() + (end.getSecond() > 0 ? 1 : 0)};
+        } catch (DateTimeParseException | IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid slot config " + slot + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static DayOfWeek parseDay(String text) {
+        if (text == null || text.trim().length() < 3) {
+            throw new IllegalArgumentException("day must name a weekday");
+        }
+        String prefix = text.trim().substring(0, 3).toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(prefix)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("unknown day '" + text + "'");
+    }
+}
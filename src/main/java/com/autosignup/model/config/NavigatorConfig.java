@@ -2,6 +2,21 @@ package com.autosignup.model.config;
 
 import java.util.List;
 
-public record NavigatorConfig(List<SlotConfig> slots) {
-}
+public record NavigatorConfig(List<SlotConfig> slots, List<SiteConfig> sites, AvailabilityMatcher matcher) {
+
+    public NavigatorConfig(List<SlotConfig> slots) {
+        this(slots, List.of(), AvailabilityMatcher.compile(slots));
+    }
 
+    /**
+     * Configured priority of the site serving {@code url}, 1 being the most preferred, or 0 if it is not listed.
+     */
+    public int sitePriority(String url) {
+        for (SiteConfig site : sites) {
+            if (site.url().equals(url)) {
+                return site.priority();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.autosignup.model.config;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * A weekly instant at which a site publishes new slots, written in config as e.g. {@code "SUN 09:00"} or,
+ * for a single site, {@code "SUN 09:00 https://example.com/schedule"}. Without a site it applies to every site.
+ */
+public record ReleaseTime(DayOfWeek day, LocalTime time, String site) {
+
+    public ReleaseTime(DayOfWeek day, LocalTime time) {
+        this(day, time, null);
+    }
+
+    public static ReleaseTime parse(String text) {
+        String[] parts = text.trim().split("\\s+");
+        if (parts.length < 2 || parts.length > 3 || parts[0].length() < 3) {
+            throw new IllegalArgumentException("Release time must look like 'SUN 09:00': " + text);
+        }
+        String prefix = parts[0].substring(0, 3).toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(prefix)) {
+                return new ReleaseTime(day, LocalTime.parse(parts[1]), parts.length == 3 ? parts[2] : null);
+            }
+        }
+        throw new IllegalArgumentException("Unknown day in release time: " + text);
+    }
+
+    /**
+     * The first occurrence strictly after {@code now}, in {@code now}'s zone.
+     */
+    public ZonedDateTime nextAfter(ZonedDateTime now) {
+        ZonedDateTime candidate = now.with(TemporalAdjusters.nextOrSame(day)).with(time).withNano(0);
+        if (!candidate.isAfter(now)) {
+            candidate = candidate.plusWeeks(1);
+        }
+        return candidate;
+    }
+
+    public boolean appliesTo(String url) {
+        return site == null || site.equals(url);
+    }
+
+    @Override
+    public String toString() {
+        return day.name().substring(0, 3) + " " + time + (site != null ? " " + site : "");
+    }
+}
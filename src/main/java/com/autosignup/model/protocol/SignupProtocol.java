@@ -1,13 +1,75 @@
 package com.autosignup.model.protocol;
 
+import com.autosignup.model.Appointment;
+import com.autosignup.model.AppointmentType;
 import com.autosignup.model.SlotInfo;
 import com.autosignup.service.BotDBManager;
+import com.autosignup.util.BookingIndex;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public abstract class SignupProtocol {
+    private static final Logger logger = LoggerFactory.getLogger(SignupProtocol.class);
+
     protected final BotDBManager dbManager;
 
     // Returns true if this slot should be signed up for
-    public abstract boolean checkValidity(SlotInfo slot);
-}
\ No newline at end of file
+    public boolean checkValidity(SlotInfo slot) {
+        return checkValidity(List.of(slot)).get(0).valid();
+    }
+
+    /**
+     * Checks a whole page of slots against the bookings touching their combined window, fetched once (or taken
+     * from the shared booking index), and returns one verdict per slot in the same order.
+     */
+    public List<ValidityVerdict> checkValidity(List<SlotInfo> slots) {
+        if (slots.isEmpty()) {
+            return List.of();
+        }
+        BookingIndex bookings = dbManager.getBookingIndex();
+        if (bookings == null) {
+            LocalDateTime from = slots.stream().map(this::windowStart).min(LocalDateTime::compareTo).orElseThrow();
+            LocalDateTime to = slots.stream().map(this::windowEnd).max(LocalDateTime::compareTo).orElseThrow();
+            try {
+                Set<AppointmentType> types = slots.stream().map(SlotInfo::appointmentType)
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(AppointmentType.class)));
+                bookings = dbManager.loadBookings(types, from, to);
+            } catch (SQLException e) {
+                logger.error("Error during validity check of {} slot(s)", slots.size(), e);
+                String reason = "validity check failed: " + e.getMessage();
+                return slots.stream().map(slot -> new ValidityVerdict(slot, false, reason)).toList();
+            }
+        }
+        BookingIndex index = bookings;
+        return slots.stream().map(slot -> {
+            String reason = rejectReason(index, slot);
+            return new ValidityVerdict(slot, reason == null, reason);
+        }).toList();
+    }
+
+    /**
+     * Whether booking {@code booked} can change this slot's verdict, i.e. it touches the slot's window.
+     */
+    public boolean isAffectedBy(SlotInfo slot, Appointment booked) {
+        return booked.appointmentType() == slot.appointmentType()
+                && !booked.end().isBefore(windowStart(slot))
+                && !booked.start().isAfter(windowEnd(slot));
+    }
+
+    // Bounds of the bookings that can affect this slot's verdict
+    protected abstract LocalDateTime windowStart(SlotInfo slot);
+
+    protected abstract LocalDateTime windowEnd(SlotInfo slot);
+
+    // Why the slot should be skipped given these bookings, or null if it is fine
+    protected abstract String rejectReason(BookingIndex bookings, SlotInfo slot);
+}
@@ -2,12 +2,9 @@ package com.autosignup.model.protocol;
 
 import com.autosignup.model.SlotInfo;
 import com.autosignup.service.BotDBManager;
+import com.autosignup.util.BookingIndex;
 
-import java.sql.ResultSet;
-import java.time.DayOfWeek;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.time.LocalDateTime;
 
 
 public class TypeWeeksBasedProtocol extends SignupProtocol {
@@ -19,61 +16,24 @@ public class TypeWeeksBasedProtocol extends SignupProtocol {
     }
 
     @Override
-    public boolean checkValidity(SlotInfo slot) {
-        try{
-            // Check 1: Verify no appointments exist in the week window
-            LocalDate startOfWeek = slot.start().toLocalDate()
-                    .with(java.time.temporal.TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
-            LocalDate endOfWeek = startOfWeek.plusDays(7L * windowWeeks - 1);
-
-            DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            String startStr = startOfWeek.atStartOfDay().format(fmt);
-            String endStr = endOfWeek.atTime(23, 59, 59).format(fmt);
-
-            String weekQuery = """
-                SELECT COUNT(*) AS cnt
-                FROM appointments
-                WHERE appointment_type = ?
-                  AND appointment_start_timestamp BETWEEN datetime(?) AND datetime(?)
-            """;
-
-            ResultSet rs = dbManager.runQuery(weekQuery, List.of(slot.appointmentType().toString(), startStr, endStr));
-            if (rs.next() && rs.getInt("cnt") > 0) {
-                System.out.println("Skipping slot due to existing appointment in window: " + slot.start());
-                return false;
-            }
-
-            // Check 2: Verify no time overlaps with any existing appointments
-            //TODO: Abstract this to the super class
-            String slotStartStr = slot.start().format(fmt);
-            String slotEndStr = slot.end().format(fmt);
-
-            String overlapQuery = """
-                SELECT COUNT(*) AS cnt
-                FROM appointments
-                WHERE appointment_type = ?
-                  AND (
-                    (datetime(appointment_start_timestamp) < datetime(?) AND datetime(appointment_end_timestamp) > datetime(?))
-                    OR (datetime(appointment_start_timestamp) >= datetime(?) AND datetime(appointment_start_timestamp) < datetime(?))
-                    OR (datetime(appointment_end_timestamp) > datetime(?) AND datetime(appointment_end_timestamp) <= datetime(?))
-                  )
-            """;
-
-            ResultSet overlapRs = dbManager.runQuery(overlapQuery, 
-                List.of(slot.appointmentType().toString(), 
-                       slotEndStr, slotStartStr,
-                       slotStartStr, slotEndStr,
-                       slotStartStr, slotEndStr));
+    protected LocalDateTime windowStart(SlotInfo slot) {
+        return BookingIndex.weekOf(slot.start()).atStartOfDay();
+    }
 
-            if (overlapRs.next() && overlapRs.getInt("cnt") > 0) {
-                System.out.println("Skipping slot due to time overlap with existing appointment: " + slot.start());
-                return false;
-            }
+    @Override
+    protected LocalDateTime windowEnd(SlotInfo slot) {
+        LocalDateTime weeksEnd = BookingIndex.weekOf(slot.start()).plusWeeks(windowWeeks).atStartOfDay();
+        return slot.end().isAfter(weeksEnd) ? slot.end() : weeksEnd;
+    }
 
-            return true;
-        } catch (Exception e) {
-            System.out.println("Error during validity check: " + e.getMessage());
-            return false;
+    @Override
+    protected String rejectReason(BookingIndex bookings, SlotInfo slot) {
+        if (bookings.countInWeeks(slot.appointmentType(), BookingIndex.weekOf(slot.start()), windowWeeks) > 0) {
+            return "existing appointment in the " + windowWeeks + "-week window";
+        }
+        if (bookings.overlaps(slot.appointmentType(), slot.start(), slot.end())) {
+            return "overlaps an existing appointment";
         }
+        return null;
     }
 }
@@ -0,0 +1,9 @@
+package com.autosignup.model.protocol;
+
+import com.autosignup.model.SlotInfo;
+
+/**
+ * Whether a slot passed its protocol and, if not, why. {@code reason} is null for valid slots.
+ */
+public record ValidityVerdict(SlotInfo slot, boolean valid, String reason) {
+}
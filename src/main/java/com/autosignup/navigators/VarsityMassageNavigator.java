@@ -3,11 +3,16 @@ package com.autosignup.navigators;
 import com.autosignup.model.Appointment;
 import com.autosignup.model.AppointmentType;
 import com.autosignup.model.SlotInfo;
+import com.autosignup.model.SnipeResult;
 import com.autosignup.model.WebsiteSpecs;
 import com.autosignup.model.protocol.ProtocolFactory;
+import com.autosignup.model.protocol.ValidityVerdict;
 import com.autosignup.service.BotDBManager;
 import com.autosignup.service.ConfigLoaderService;
+import com.autosignup.util.PlaywrightPool;
+import com.autosignup.util.HttpSlotPoller;
 import com.autosignup.util.PlaywrightWrapper;
+import com.autosignup.util.SlotJsonParser;
 import com.microsoft.playwright.ElementHandle;
 import jakarta.annotation.PostConstruct;
 import lombok.Setter;
@@ -16,19 +21,73 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Component
 public class VarsityMassageNavigator extends WebsiteNavigator {
     private static final Logger logger = LoggerFactory.getLogger(VarsityMassageNavigator.class);
+    private static final long SIGNUP_LEASE_TIMEOUT_MS = 120_000;
+
+    // Walks banners and rows once in document order, tagging each row with its index and preceding banner
+    private static final String SCAN_SCHEDULE_JS = """
+            rowSelector => {
+                const rows = [];
+                let dateBanner = null;
+                for (const node of document.querySelectorAll('.date-banner, ' + rowSelector)) {
+                    if (node.matches('.date-banner')) {
+                        dateBanner = node.textContent;
+                        continue;
+                    }
+                    const i = rows.length;
+                    node.setAttribute('data-autosignup-slot', String(i));
+                    if (dateBanner !== null) {
+                        node.setAttribute('data-autosignup-banner', dateBanner);
+                    } else {
+                        node.removeAttribute('data-autosignup-banner');
+                    }
+                    const time = node.querySelector('time');
+                    const available = Array.from(node.querySelectorAll('button')).some(button =>
+                        button.getAttribute('data-i18n') === '_SignUp_'
+                            || button.textContent.toLowerCase().includes('sign up'));
+                    rows.push({
+                        dateBanner: dateBanner,
+                        timeText: time ? time.textContent : null,
+                        available: available,
+                        stableSelector: '[data-autosignup-slot="' + i + '"]'
+                    });
+                }
+                return rows;
+            }
+            """;
+
+    // Only tags each row with its preceding banner, for the per-element path; kept separate from the batched scan
+    private static final String TAG_BANNERS_JS = """
+            rowSelector => {
+                let dateBanner = null;
+                for (const node of document.querySelectorAll('.date-banner, ' + rowSelector)) {
+                    if (node.matches('.date-banner')) {
+                        dateBanner = node.textContent;
+                    } else if (dateBanner !== null) {
+                        node.setAttribute('data-autosignup-banner', dateBanner);
+                    } else {
+                        node.removeAttribute('data-autosignup-banner');
+                    }
+                }
+            }
+            """;
+
     private final ConfigLoaderService configLoader;
     
     @Value("${navigators.massage.enabled:true}")
@@ -37,9 +96,54 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
     @Setter
     @Value("${navigators.massage.urls}")
     private List<String> urls;
+
+    @Setter
+    @Value("${navigators.massage.batch-extraction:true}")
+    private boolean batchExtraction = true;
+
+    @Setter
+    @Value("${navigators.massage.capture.enabled:false}")
+    private boolean captureEnabled;
+
+    @Setter
+    @Value("${navigators.massage.capture.url-patterns:}")
+    private List<String> captureUrlPatterns = List.of();
+
+    @Value("${navigators.massage.capture.start-field:start}")
+    private String captureStartField = "start";
+
+    @Value("${navigators.massage.capture.end-field:end}")
+    private String captureEndField = "end";
+
+    @Value("${navigators.massage.capture.available-field:available}")
+    private String captureAvailableField = "available";
+
+    @Setter
+    @Value("${navigators.massage.http-polling.enabled:false}")
+    private boolean httpPollingEnabled;
+
+    // Slot JSON endpoint for each entry of urls, by position; blank entries fall back to the browser
+    @Setter
+    @Value("${navigators.massage.api-urls:}")
+    private List<String> apiUrls = List.of();
+
+    @Value("${navigators.massage.http-polling.timeout-ms:10000}")
+    private int httpPollingTimeoutMs = 10000;
+
+    @Value("${calendar.timezone:UTC}")
+    private String timezone = "UTC";
+
+    // How long a scanned page may be reused by signup() without navigating again
+    @Setter
+    @Value("${navigators.massage.stage-ttl-ms:120000}")
+    private long stageTtlMs = 120000;
+
+    private List<Pattern> capturePatterns = List.of();
+    private SlotJsonParser slotJsonParser;
+    private HttpSlotPoller httpSlotPoller;
     
-    public VarsityMassageNavigator(ProtocolFactory factory, PlaywrightWrapper playwright, ConfigLoaderService configLoader, BotDBManager botDBManager) {
-        super(factory, AppointmentType.MASSAGE, playwright, botDBManager);
+    public VarsityMassageNavigator(ProtocolFactory factory, PlaywrightPool playwrightPool, ConfigLoaderService configLoader, BotDBManager botDBManager) {
+        super(factory, AppointmentType.MASSAGE, playwrightPool, botDBManager);
         this.protocol = factory.createTypeWeeksProtocol(1);
         this.configLoader = configLoader;
     }
@@ -48,10 +152,19 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
     public void loadConfig() {
         this.navigatorConfig = configLoader.getNavigatorConfig("massage_navigator");
         
-        for (String url : urls) {
-            WebsiteSpecs specs = new WebsiteSpecs(protocol, url, AppointmentType.MASSAGE);
+        for (int i = 0; i < urls.size(); i++) {
+            String url = urls.get(i);
+            String apiUrl = i < apiUrls.size() && !apiUrls.get(i).isBlank() ? apiUrls.get(i) : null;
+            WebsiteSpecs specs = new WebsiteSpecs(protocol, url, AppointmentType.MASSAGE, apiUrl);
             websites.add(specs);
-            logger.info("Loaded URL: {}", url);
+            logger.info("Loaded URL: {}{}", url, apiUrl != null ? " (API: " + apiUrl + ")" : "");
+        }
+        
+        capturePatterns = captureUrlPatterns.stream().filter(p -> !p.isBlank()).map(Pattern::compile).collect(Collectors.toList());
+        slotJsonParser = new SlotJsonParser(captureStartField, captureEndField, captureAvailableField, ZoneId.of(timezone));
+        httpSlotPoller = new HttpSlotPoller(Duration.ofMillis(httpPollingTimeoutMs));
+        if (captureEnabled) {
+            logger.info("XHR capture enabled for {} endpoint pattern(s)", capturePatterns.size());
         }
         
         logger.info("VarsityMassageNavigator initialized with {} sites and {} slot preferences", 
@@ -59,43 +172,110 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
     }
 
     @Override
-    public List<Appointment> navigate() {
+    public List<Appointment> navigate(List<WebsiteSpecs> sites) {
         List<Appointment> appointments = new ArrayList<>();
-        for (WebsiteSpecs specs : websites) {
-            List<SlotInfo> slots = runPlaywright(specs);
-            logger.info("Found {} slots for {}", slots.size(), specs.url());
-            
-            List<SlotInfo> validSlots = slots.stream()
-                .filter(slot -> slot.available() && protocol.checkValidity(slot))
-                .toList();
-            
-            logger.info("After protocol filtering: {} valid slots", validSlots.size());
-            
-            for (SlotInfo slot : validSlots) {
-                Appointment appointment = slotInfoToAppointment(slot);
-                appointments.add(appointment);
-                appointmentToSlotMap.put(appointment, slot);
-                logger.info("Created appointment: {}", appointment);
+        long sweepStart = System.currentTimeMillis();
+        List<List<SlotInfo>> scanned = scanInParallel(sites, this::runPlaywright);
+        logger.info("Scanned {} site(s) across {} browser lane(s) in {} ms",
+                sites.size(), playwrightPool.getSize(), System.currentTimeMillis() - sweepStart);
+        logger.info("Request filter for this sweep: {}", playwright.getRequestFilter().snapshotAndReset());
+        logger.info("Browser memory: {}", playwright.getMemoryGovernor().snapshot());
+
+        for (int i = 0; i < sites.size(); i++) {
+            recordScan(sites.get(i), scanned.get(i));
+            appointments.addAll(toAppointments(sites.get(i), scanned.get(i)));
+        }
+        return appointments;
+    }
+
+    @Override
+    protected List<Appointment> scanOn(PlaywrightWrapper lane, WebsiteSpecs site) {
+        List<SlotInfo> slots = runPlaywright(lane, site);
+        recordScan(site, slots);
+        return toAppointments(site, slots);
+    }
+
+    /**
+     * Polls the site's API when it has one, otherwise reloads the held page and reads it with one batched
+     * evaluate, waiting only for the slot container rather than for the page to settle.
+     */
+    @Override
+    protected List<Appointment> refreshOn(PlaywrightWrapper lane, WebsiteSpecs site) {
+        if (httpPollingEnabled && site.apiUrl() != null) {
+            List<SlotInfo> polled = pollSlots(site);
+            if (polled != null) {
+                return toAppointments(site, polled);
             }
         }
+        try {
+            lane.reload(site.url());
+            if (!lane.getWaitEngine().selectorVisible(lane.getPage(), getSlotSelectors().get("slot_container"))) {
+                return List.of();
+            }
+            return toAppointments(site, extractSlotsBatched(lane, site.url()));
+        } catch (Exception e) {
+            logger.warn("Snipe refresh failed for {}: {}", site.url(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Turns the slots that pass the protocol into appointments
+    private List<Appointment> toAppointments(WebsiteSpecs specs, List<SlotInfo> slots) {
+        List<Appointment> appointments = new ArrayList<>();
+        logger.info("Found {} slots for {}", slots.size(), specs.url());
+        
+        List<SlotInfo> available = slots.stream().filter(SlotInfo::available).toList();
+        List<SlotInfo> validSlots = new ArrayList<>();
+        for (ValidityVerdict verdict : protocol.checkValidity(available)) {
+            if (verdict.valid()) {
+                validSlots.add(verdict.slot());
+            } else {
+                logger.info("Skipping slot {}: {}", verdict.slot().start(), verdict.reason());
+            }
+        }
+        
+        logger.info("After protocol filtering: {} valid slots", validSlots.size());
+        
+        for (SlotInfo slot : validSlots) {
+            Appointment appointment = slotInfoToAppointment(slot);
+            appointments.add(appointment);
+            appointmentToSlotMap.put(appointment, slot);
+            logger.info("Created appointment: {}", appointment);
+        }
         return appointments;
     }
 
-    public List<SlotInfo> runPlaywright(WebsiteSpecs specs) {
+    public List<SlotInfo> runPlaywright(PlaywrightWrapper lane, WebsiteSpecs specs) {
         List<SlotInfo> foundSlots = new ArrayList<>();
         
+        if (httpPollingEnabled && specs.apiUrl() != null) {
+            List<SlotInfo> polled = pollSlots(specs);
+            if (polled != null) {
+                return polled;
+            }
+        }
+        
         try {
-            playwright.navigateTo(specs.url(), 3);
+            if (captureEnabled && !capturePatterns.isEmpty()) {
+                List<String> bodies = lane.navigateAndCapture(specs.url(), capturePatterns, 3);
+                List<SlotInfo> captured = slotJsonParser.parse(bodies, appointmentType, specs.url());
+                if (!captured.isEmpty()) {
+                    logger.info("Parsed {} slots from captured API responses for {}", captured.size(), specs.url());
+                    return captured;
+                }
+                logger.info("No slot data captured for {}, falling back to DOM scraping", specs.url());
+            } else {
+                lane.navigateTo(specs.url(), 3);
+            }
             
-            List<ElementHandle> slots = playwright.findSlots(getSlotSelectors());
-            if (slots.isEmpty()) {
+            if (!lane.awaitSlots(getSlotSelectors())) {
                 logger.info("No slots found on site: {}", specs.url());
                 return foundSlots;
             }
-            
-            logger.info("Found {} potential slots", slots.size());
 
-            foundSlots = parseSlotsWithUrl(slots, specs.url());
+            foundSlots = batchExtraction
+                    ? extractSlotsBatched(lane, specs.url())
+                    : tagAndParseSlotsPerElement(lane, specs.url());
             
             logger.info("Successfully parsed {} slots from {}", foundSlots.size(), specs.url());
             
@@ -105,12 +285,81 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
         
         return foundSlots;
     }
+
+    /**
+     * Discovers slots from the site's JSON endpoint without touching the browser. Returns null when the
+     * endpoint cannot be read, so the caller falls back to loading the page.
+     */
+    private List<SlotInfo> pollSlots(WebsiteSpecs specs) {
+        try {
+            String body = httpSlotPoller.fetch(specs.apiUrl());
+            List<SlotInfo> slots = slotJsonParser.parse(List.of(body), appointmentType, specs.url());
+            logger.info("Polled {} slots from {}", slots.size(), specs.apiUrl());
+            return slots;
+        } catch (Exception e) {
+            logger.warn("HTTP polling failed for {}, falling back to the browser: {}", specs.apiUrl(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Parses every slot on the lane's current page with one {@code page.evaluate} round trip.
+     */
+    public List<SlotInfo> extractSlotsBatched(PlaywrightWrapper lane, String url) {
+        long start = System.nanoTime();
+        List<Map<String, Object>> rows = scanSchedule(lane);
+
+        List<SlotInfo> foundSlots = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            SlotInfo slotInfo = buildSlot(null, (String) row.get("dateBanner"), (String) row.get("timeText"),
+                    Boolean.TRUE.equals(row.get("available")), (String) row.get("stableSelector"), url);
+            if (slotInfo != null) {
+                foundSlots.add(slotInfo);
+            }
+        }
+        logger.debug("Batched extraction parsed {} of {} rows in {} ms",
+                foundSlots.size(), rows.size(), (System.nanoTime() - start) / 1_000_000);
+        return foundSlots;
+    }
+
+    /**
+     * Scans the schedule on the lane's current page in one pass, in document order. Every row is tagged with
+     * {@code data-autosignup-slot} and {@code data-autosignup-banner}, and one entry per row is returned with
+     * its dateBanner, timeText, available flag and stableSelector.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> scanSchedule(PlaywrightWrapper lane) {
+        return (List<Map<String, Object>>) lane.getPage()
+                .evaluate(SCAN_SCHEDULE_JS, getSlotSelectors().get("slot_container"));
+    }
+
+    private List<SlotInfo> tagAndParseSlotsPerElement(PlaywrightWrapper lane, String url) {
+        tagBanners(lane);
+        return parseSlotsPerElement(lane, url);
+    }
+
+    /**
+     * Writes each row's preceding date banner into {@code data-autosignup-banner}, which {@link #parseSlot} reads.
+     */
+    public void tagBanners(PlaywrightWrapper lane) {
+        lane.getPage().evaluate(TAG_BANNERS_JS, getSlotSelectors().get("slot_container"));
+    }
+
+    /**
+     * Parses every slot on the lane's current page one element at a time. {@link #tagBanners} must have run on
+     * the page first.
+     */
+    public List<SlotInfo> parseSlotsPerElement(PlaywrightWrapper lane, String url) {
+        List<ElementHandle> slots = lane.getPage().querySelectorAll(getSlotSelectors().get("slot_container"));
+        logger.info("Found {} potential slots", slots.size());
+        return parseSlotsWithUrl(lane, slots, url);
+    }
     
-    private List<SlotInfo> parseSlotsWithUrl(List<ElementHandle> slots, String url) {
+    private List<SlotInfo> parseSlotsWithUrl(PlaywrightWrapper lane, List<ElementHandle> slots, String url) {
         List<SlotInfo> foundSlots = new ArrayList<>();
         for (int i = 0; i < slots.size(); i++) {
             ElementHandle slot = slots.get(i);
-            SlotInfo slotInfo = parseSlot(slot, url);
+            SlotInfo slotInfo = parseSlot(lane, slot, url);
             if (slotInfo != null) {
                 foundSlots.add(slotInfo);
                 logger.debug("Slot {}: Day={}, Time={}, Start={}, End={}, Available={}, URL={}",
@@ -128,7 +377,7 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
         );
     }
 
-    protected SlotInfo parseSlot(ElementHandle element, String sourceUrl) {
+    protected SlotInfo parseSlot(PlaywrightWrapper lane, ElementHandle element, String sourceUrl) {
         try {
             List<ElementHandle> timeElements = element.querySelectorAll("time");
             if (timeElements.isEmpty()) {
@@ -136,57 +385,57 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
                 return null;
             }
             
-            String timeText = playwright.getElementText(timeElements.get(0));
-            String time = convertTo24Hour(timeText);
-            if (time == null) {
-                logger.debug("Could not convert time: {}", timeText);
-                return null;
-            }
-            
-            String jsCode = "el => { " +
-                    "let dateBanners = Array.from(document.querySelectorAll('.date-banner')); " +
-                    "if (dateBanners.length === 0) return null; " +
-                    "let rect = el.getBoundingClientRect(); " +
-                    "let matchingBanner = null; " +
-                    "for (let banner of dateBanners) { " +
-                    "let bannerRect = banner.getBoundingClientRect(); " +
-                    "if (bannerRect.top < rect.top) { matchingBanner = banner; } " +
-                    "} " +
-                    "return matchingBanner ? matchingBanner.textContent : null; " +
-                    "}";
-            Object dateInfo = element.evaluate(jsCode);
-            
-            if (dateInfo == null) {
-                logger.debug("Could not find date banner");
-                return null;
-            }
+            String timeText = lane.getElementText(timeElements.get(0));
             
-            String dateText = dateInfo.toString();
-            String day = extractDayFromText(dateText);
-            LocalDate appointmentDate = extractDateFromText(dateText);
-            
-            if (day == null || appointmentDate == null) {
-                logger.debug("Could not extract day or date from: {}", dateText);
-                return null;
-            }
-            
-            LocalDateTime start = parseTimeToLocalDateTime(appointmentDate, time);
-            if (start == null) {
-                logger.debug("Could not create start LocalDateTime from date: {} and time: {}", appointmentDate, time);
-                return null;
-            }
-            
-            LocalDateTime end = start.plusHours(1);
+            // Banner tag is written by tagBanners, so no layout queries are needed here
+            String dateText = element.getAttribute("data-autosignup-banner");
             
             boolean available = isSlotAvailable(element);
             
-            return new SlotInfo(element, day, time, start, end, available, appointmentType, sourceUrl);
+            return buildSlot(element, dateText, timeText, available, null, sourceUrl);
             
         } catch (Exception e) {
             logger.debug("Failed to parse slot: {}", e.getMessage());
             return null;
         }
     }
+
+    private SlotInfo buildSlot(ElementHandle element, String dateText, String timeText, boolean available,
+                               String locator, String sourceUrl) {
+        if (timeText == null) {
+            logger.debug("No time elements found in slot");
+            return null;
+        }
+
+        String time = convertTo24Hour(timeText);
+        if (time == null) {
+            logger.debug("Could not convert time: {}", timeText);
+            return null;
+        }
+
+        if (dateText == null) {
+            logger.debug("Could not find date banner");
+            return null;
+        }
+
+        String day = extractDayFromText(dateText);
+        LocalDate appointmentDate = extractDateFromText(dateText);
+
+        if (day == null || appointmentDate == null) {
+            logger.debug("Could not extract day or date from: {}", dateText);
+            return null;
+        }
+
+        LocalDateTime start = parseTimeToLocalDateTime(appointmentDate, time);
+        if (start == null) {
+            logger.debug("Could not create start LocalDateTime from date: {} and time: {}", appointmentDate, time);
+            return null;
+        }
+
+        LocalDateTime end = start.plusHours(1);
+
+        return new SlotInfo(element, day, time, start, end, available, appointmentType, sourceUrl, locator);
+    }
     
     private String convertTo24Hour(String timeText) {
         try {
@@ -297,45 +546,49 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
     
     @Override
     public boolean signup(Appointment appointment) {
+        SlotInfo slot = appointmentToSlotMap.get(appointment);
+        if (slot == null) {
+            logger.error("No SlotInfo found for appointment: {}", appointment);
+            return false;
+        }
+
+        long bookingStart = System.nanoTime();
+        PlaywrightWrapper lane = null;
+        boolean staged = false;
+        boolean success = false;
         try {
-            SlotInfo slot = appointmentToSlotMap.get(appointment);
-            if (slot == null) {
-                logger.error("No SlotInfo found for appointment: {}", appointment);
-                return false;
-            }
-            
-            String slotUrl = slot.sourceUrl();
-            if (slotUrl != null && !slotUrl.isEmpty()) {
-                logger.info("Navigating to slot's source URL: {}", slotUrl);
-                playwright.navigateTo(slotUrl, 3);
-                playwright.getPage().waitForTimeout(2000);
-            } else {
-                logger.warn("Slot has no source URL, attempting signup on current page");
-            }
-            
-            List<ElementHandle> allSlots = playwright.findSlots(getSlotSelectors());
-            if (allSlots.isEmpty()) {
-                logger.error("No slots found on page after navigation");
-                playwright.takeScreenshot("signup_no_slots_after_nav");
-                return false;
+            // Prefer the lane whose page still shows this slot's schedule from the scan
+            lane = playwrightPool.lease(l -> l.isShowing(slot.sourceUrl(), stageTtlMs), SIGNUP_LEASE_TIMEOUT_MS);
+            staged = slot.locator() != null && lane.isShowing(slot.sourceUrl(), stageTtlMs);
+            success = attemptSignup(lane, appointment, slot, staged);
+            return success;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while waiting for a browser page to sign up for {}", appointment);
+            return false;
+        } catch (IllegalStateException e) {
+            logger.error("No browser page available for signup: {}", e.getMessage());
+            return false;
+        } finally {
+            if (lane != null) {
+                lane.markStale();
+                playwrightPool.release(lane);
             }
-            
-            ElementHandle slotElement = null;
-            for (ElementHandle candidateSlot : allSlots) {
-                SlotInfo candidateInfo = parseSlot(candidateSlot, slotUrl);
-                if (candidateInfo != null && 
-                    candidateInfo.start().equals(slot.start()) &&
-                    candidateInfo.day().equals(slot.day()) &&
-                    candidateInfo.time().equals(slot.time())) {
-                    slotElement = candidateSlot;
-                    logger.info("Re-found matching slot: {} at {}", candidateInfo.day(), candidateInfo.time());
-                    break;
-                }
+            logger.info("Booking latency for {}: {} ms (success={}, staged={}, fastMode={})", appointment.start(),
+                    (System.nanoTime() - bookingStart) / 1_000_000, success, staged, playwright.getWaitEngine().isFastMode());
+        }
+    }
+
+    private boolean attemptSignup(PlaywrightWrapper lane, Appointment appointment, SlotInfo slot, boolean staged) {
+        try {
+            ElementHandle slotElement = staged ? findStagedSlot(lane, slot) : null;
+            if (slotElement == null) {
+                slotElement = relocateSlot(lane, slot);
             }
-            
+
             if (slotElement == null) {
                 logger.error("Could not re-locate slot for appointment: {}", appointment);
-                playwright.takeScreenshot("signup_slot_not_found");
+                lane.takeScreenshot("signup_slot_not_found");
                 return false;
             }
             
@@ -351,39 +604,40 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
             List<ElementHandle> signupButtons = slotElement.querySelectorAll("button[data-i18n='_SignUp_'], button:has-text('Sign Up')");
             if (signupButtons.isEmpty()) {
                 logger.error("No signup button found for slot");
-                playwright.takeScreenshot("signup_no_button");
+                lane.takeScreenshot("signup_no_button");
                 return false;
             }
             
-            playwright.clickElement(signupButtons.get(0));
+            markSignupClicked();
+            lane.clickElement(signupButtons.get(0));
             logger.info("Clicked signup button");
             
-            boolean formAppeared = playwright.waitForModal("form, .modal, .signup-form", 5000);
+            boolean formAppeared = lane.waitForModal("form, .modal, .signup-form", 5000);
             if (!formAppeared) {
                 logger.warn("Form modal did not appear, continuing anyway");
             }
-            playwright.getPage().waitForTimeout(2000);
+            lane.settle(2000);
             
             try {
-                playwright.fillFormField("input[name='email'], input[type='email'], input[placeholder*='Email'], input[id*='email']", 
-                                       userConfig.email());
+                lane.fillFormField("input[name='email'], input[type='email'], input[placeholder*='Email'], input[id*='email']", 
+                                 userConfig.email());
                 logger.info("Filled email field");
             } catch (Exception e) {
                 logger.error("Failed to fill email field: {}", e.getMessage());
-                playwright.takeScreenshot("signup_email_failed");
+                lane.takeScreenshot("signup_email_failed");
                 return false;
             }
             
-            playwright.takeScreenshot("signup_before_submit");
+            lane.takeScreenshot("signup_before_submit");
             
             try {
-                playwright.clickSelector("button[type='submit'], button:has-text('Submit'), button:has-text('Confirm'), button:has-text('Sign Up')");
-                playwright.clickSelector("#confirm_button");
-                playwright.clickSelector("button[data-trackelem='_FinishSignUp_']");
-                boolean success = playwright.isElementVisible(".success, .confirmation, [class*='success']") ||
-                                 playwright.isElementVisible("*:has-text('Thank you'), *:has-text('Confirmed'), *:has-text('Success')");
+                lane.clickSelector("button[type='submit'], button:has-text('Submit'), button:has-text('Confirm'), button:has-text('Sign Up')");
+                lane.clickSelector("#confirm_button");
+                lane.clickSelector("button[data-trackelem='_FinishSignUp_']");
+                boolean success = lane.isElementVisible(".success, .confirmation, [class*='success']") ||
+                           lane.isElementVisible("*:has-text('Thank you'), *:has-text('Confirmed'), *:has-text('Success')");
 
-                playwright.takeScreenshot("signup_after_submit");
+                lane.takeScreenshot("signup_after_submit");
                 
                 if (success) {
                     logger.info("Successfully signed up for appointment: {}", appointment);
@@ -393,17 +647,62 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
                 return true;
             } catch (Exception e) {
                 logger.error("Failed to click submit button: {}", e.getMessage());
-                playwright.takeScreenshot("signup_submit_error");
+                lane.takeScreenshot("signup_submit_error");
                 return false;
             }
             
         } catch (Exception e) {
             logger.error("Error during signup: {}", e.getMessage(), e);
-            playwright.takeScreenshot("signup_general_error");
+            lane.takeScreenshot("signup_general_error");
             return false;
         }
     }
     
+    /**
+     * Uses the row tagged during the scan, provided it still shows the slot's time.
+     */
+    private ElementHandle findStagedSlot(PlaywrightWrapper lane, SlotInfo slot) {
+        try {
+            ElementHandle element = lane.getPage().querySelector(slot.locator());
+            ElementHandle timeElement = element != null ? element.querySelector("time") : null;
+            if (timeElement != null && slot.time().equals(convertTo24Hour(timeElement.textContent()))) {
+                logger.info("Using staged slot: {} at {}", slot.day(), slot.time());
+                return element;
+            }
+            logger.info("Staged page no longer shows slot {} at {}, re-navigating", slot.day(), slot.time());
+        } catch (Exception e) {
+            logger.debug("Staged slot lookup failed: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private ElementHandle relocateSlot(PlaywrightWrapper lane, SlotInfo slot) {
+        String slotUrl = slot.sourceUrl();
+        if (slotUrl != null && !slotUrl.isEmpty()) {
+            logger.info("Navigating to slot's source URL: {}", slotUrl);
+            lane.navigateTo(slotUrl, 3);
+            lane.settle(2000);
+        } else {
+            logger.warn("Slot has no source URL, attempting signup on current page");
+        }
+
+        if (!lane.awaitSlots(getSlotSelectors())) {
+            logger.error("No slots found on page after navigation");
+            lane.takeScreenshot("signup_no_slots_after_nav");
+            return null;
+        }
+
+        for (SlotInfo candidateInfo : extractSlotsBatched(lane, slotUrl)) {
+            if (candidateInfo.start().equals(slot.start()) &&
+                candidateInfo.day().equals(slot.day()) &&
+                candidateInfo.time().equals(slot.time())) {
+                logger.info("Re-found matching slot: {} at {}", candidateInfo.day(), candidateInfo.time());
+                return lane.getPage().querySelector(candidateInfo.locator());
+            }
+        }
+        return null;
+    }
+    
     @Override
     public List<Appointment> runAll() {
         if (!enabled) {
@@ -412,5 +711,23 @@ public class VarsityMassageNavigator extends WebsiteNavigator {
         }
         return super.runAll();
     }
+
+    @Override
+    public List<Appointment> runAll(List<WebsiteSpecs> sites) {
+        if (!enabled) {
+            logger.info("VarsityMassageNavigator is disabled, skipping execution");
+            return new ArrayList<>();
+        }
+        return super.runAll(sites);
+    }
+
+    @Override
+    public SnipeResult snipe(List<WebsiteSpecs> sites, Instant releaseAt, long refreshIntervalMs, Duration window) throws InterruptedException {
+        if (!enabled) {
+            logger.info("VarsityMassageNavigator is disabled, skipping snipe");
+            return null;
+        }
+        return super.snipe(sites, releaseAt, refreshIntervalMs, window);
+    }
     
 }
\ No newline at end of file
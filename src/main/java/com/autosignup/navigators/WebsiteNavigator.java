@@ -5,30 +5,55 @@ import com.autosignup.model.AppointmentType;
 import com.autosignup.model.SlotInfo;
 import com.autosignup.model.WebsiteSpecs;
 import com.autosignup.model.Signup;
+import com.autosignup.model.SnipeResult;
+import com.autosignup.model.config.AvailabilityMatcher;
 import com.autosignup.model.config.NavigatorConfig;
-import com.autosignup.model.config.SlotConfig;
 import com.autosignup.model.protocol.ProtocolFactory;
 import com.autosignup.model.protocol.SignupProtocol;
+import com.autosignup.model.protocol.ValidityVerdict;
 import com.autosignup.service.BotDBManager;
+import com.autosignup.service.SlotObservationRecorder;
 import com.autosignup.service.EmailService;
+import com.autosignup.util.CandidateScorer;
+import com.autosignup.util.PlaywrightPool;
 import com.autosignup.util.PlaywrightWrapper;
 import lombok.Getter;
 import lombok.Setter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 
 import java.io.IOException;
-import java.time.LocalTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
 
 public abstract class WebsiteNavigator {
     private static final Logger logger = LoggerFactory.getLogger(WebsiteNavigator.class);
+    private static final long PAGE_LEASE_TIMEOUT_MS = 120_000;
+    private static final long LOCK_POLL_MS = 100;
     
     @Getter
     protected final List<WebsiteSpecs> websites;
@@ -37,21 +62,55 @@ public abstract class WebsiteNavigator {
     protected SignupProtocol protocol = null;
     protected final AppointmentType appointmentType;
     protected PlaywrightWrapper playwright;
+    protected final PlaywrightPool playwrightPool;
     protected NavigatorConfig navigatorConfig;
     protected Map<Appointment, SlotInfo> appointmentToSlotMap = new HashMap<>();
     protected final BotDBManager botDBManager;
     @Setter
     protected EmailService emailService;
+    // Held by runFlow and snipe so a scheduled sweep never interleaves with a snipe on the same pages
+    private final ReentrantLock flowLock = new ReentrantLock();
+    // Set while a snipe holds or waits for flowLock; sweeps skip rather than queue behind it
+    private volatile boolean snipePending;
+    private volatile long lastSignupClickMs;
+    // System.nanoTime() after which no new site scan or booking starts; null while no budgeted run is active
+    private final AtomicReference<Long> deadlineNanos = new AtomicReference<>();
+    // Slots seen by the most recent scan of each site, keyed by site URL
+    private final Map<String, List<SlotInfo>> lastScans = new ConcurrentHashMap<>();
+    protected CandidateScorer scorer = new CandidateScorer();
+    // Null outside Spring, in which case scans are not persisted
+    protected SlotObservationRecorder observationRecorder;
+    // Candidates runFlow will consider per scan, best first
+    @Value("${navigators.top-k:20}")
+    protected int topK = 20;
 
-    public WebsiteNavigator(ProtocolFactory factory, AppointmentType appointmentType, PlaywrightWrapper playwright, BotDBManager botDBManager) {
+    public WebsiteNavigator(ProtocolFactory factory, AppointmentType appointmentType, PlaywrightPool playwrightPool, BotDBManager botDBManager) {
         this.factory = factory;
         this.appointmentType = appointmentType;
         this.websites = new ArrayList<>();
-        this.playwright = playwright;
+        this.playwrightPool = playwrightPool;
+        this.playwright = playwrightPool.getPrimary();
         this.botDBManager = botDBManager;
     }
 
-    public abstract List<Appointment> navigate();
+    @Autowired(required = false)
+    public void setScorer(CandidateScorer scorer) {
+        this.scorer = scorer;
+    }
+
+    @Autowired(required = false)
+    public void setObservationRecorder(SlotObservationRecorder observationRecorder) {
+        this.observationRecorder = observationRecorder;
+    }
+
+    public List<Appointment> navigate() {
+        return navigate(websites);
+    }
+
+    /**
+     * Scans {@code sites}, which must be a subset of {@link #getWebsites()}, and returns the valid appointments found.
+     */
+    public abstract List<Appointment> navigate(List<WebsiteSpecs> sites);
 
     public List<Appointment> filterForConfig(List<Appointment> possibleAppointments) {
         if (navigatorConfig == null || navigatorConfig.slots().isEmpty()) {
@@ -60,15 +119,11 @@ public abstract class WebsiteNavigator {
         }
 
         List<Appointment> filtered = new ArrayList<>();
-
+        AvailabilityMatcher matcher = navigatorConfig.matcher();
         for (Appointment appointment : possibleAppointments) {
-            for (var slotConfig : navigatorConfig.slots()) {
-                if (matchesSlotConfig(appointment, slotConfig)) {
-                    filtered.add(appointment);
-                    logger.info("Appointment matches config - Day: {}, Time: {} - {}",
-                            slotConfig.day(), slotConfig.start(), slotConfig.end());
-                    break;
-                }
+            if (matcher.matches(appointment.start(), appointment.end())) {
+                filtered.add(appointment);
+                logger.debug("Appointment matches config: {}", appointment);
             }
         }
 
@@ -79,12 +134,25 @@ public abstract class WebsiteNavigator {
     public abstract boolean signup(Appointment appointment);
 
     public List<Appointment> runFlow() {
-        logger.info("Starting runFlow for {}", this.getClass().getSimpleName());
+        return runFlow(websites);
+    }
+
+    /**
+     * Books the candidates from one scan best-first. Candidates start out with the verdict {@link #navigate(List)}
+     * already gave them; a booking only marks the candidates it can affect (see {@link SignupProtocol#isAffectedBy})
+     * for re-checking, and those are re-checked together in one batch when one of them reaches the head of the queue.
+     */
+    public List<Appointment> runFlow(List<WebsiteSpecs> sites) {
+        logger.info("Starting runFlow for {} ({} site(s))", this.getClass().getSimpleName(), sites.size());
         List<Appointment> signedUpAppointments = new ArrayList<>();
         
+        if (!acquireForSweep()) {
+            logger.info("Skipping runFlow for {}: a release-time snipe has the browser pages", this.getClass().getSimpleName());
+            return signedUpAppointments;
+        }
         try {
             appointmentToSlotMap.clear();
-            List<Appointment> allAppointments = navigate();
+            List<Appointment> allAppointments = navigate(sites);
             logger.info("Step 1: Found {} total appointments", allAppointments.size());
             
             if (allAppointments.isEmpty()) {
@@ -100,68 +168,47 @@ public abstract class WebsiteNavigator {
                 return signedUpAppointments;
             }
             
-            List<Appointment> remainingAppointments = new ArrayList<>(filterByPriority(filteredAppointments, 1));
-            logger.info("Step 3: Found {} priority 1 appointments", remainingAppointments.size());
-            
-            if (remainingAppointments.isEmpty()) {
-                logger.info("No priority 1 appointments found, ending flow");
-                return signedUpAppointments;
-            }
-            
-            Appointment firstAppointment = remainingAppointments.get(0);
-            logger.info("Step 4: Attempting signup for first priority 1 appointment: {}", firstAppointment);
+            List<Appointment> candidates = selectTopCandidates(filteredAppointments, topK);
+            logger.info("Step 3: Selected the top {} of {} appointments", candidates.size(), filteredAppointments.size());
             
-            if (signup(firstAppointment)) {
-                signedUpAppointments.add(firstAppointment);
-                recordSignup(firstAppointment);
-                remainingAppointments.remove(0);
-                logger.info("Successfully signed up for first appointment, {} remaining", remainingAppointments.size());
-            } else {
-                logger.warn("Failed to sign up for first appointment");
-                if (emailService != null) {
-                    emailService.sendErrorEmail(
-                        this.getClass().getSimpleName(),
-                        firstAppointment.toString(),
-                        "Signup method returned false - unable to complete signup process"
-                    );
-                }
-                remainingAppointments.remove(0);
+
+            Map<Appointment, Integer> rank = new HashMap<>();
+            for (Appointment candidate : candidates) {
+                rank.putIfAbsent(candidate, rank.size());
             }
+            PriorityQueue<Appointment> queue = new PriorityQueue<>(Comparator.comparingInt(rank::get));
+            queue.addAll(rank.keySet());
+            Set<Appointment> stale = new HashSet<>();
+            Set<Appointment> rejected = new HashSet<>();
+            int reevaluated = 0;
             
-            int iteration = 1;
-            while (!remainingAppointments.isEmpty()) {
-                logger.info("Step 5.{}: Processing remaining appointments, {} left", iteration, remainingAppointments.size());
-                
-                List<Appointment> refiltered = filterForConfig(remainingAppointments);
-                logger.info("Step 5.{}.a: After config filter: {} appointments", iteration, refiltered.size());
-                
-                if (refiltered.isEmpty()) {
-                    logger.info("No remaining appointments match config, ending flow");
-                    break;
+            while (!queue.isEmpty()) {
+                if (stale.contains(queue.peek())) {
+                    revalidate(stale, rejected);
+                    stale.clear();
                 }
-                
-                List<Appointment> validAppointments = new ArrayList<>();
-                for (Appointment appointment : refiltered) {
-                    SlotInfo slot = appointmentToSlotMap.get(appointment);
-                    if (slot != null && protocol.checkValidity(slot)) {
-                        validAppointments.add(appointment);
-                    }
+                Appointment nextAppointment = queue.poll();
+                if (rejected.contains(nextAppointment)) {
+                    continue;
                 }
-                
-                logger.info("Step 5.{}.b: After protocol filter: {} valid appointments", iteration, validAppointments.size());
-                
-                if (validAppointments.isEmpty()) {
-                    logger.info("No remaining appointments passed protocol check, ending flow");
+                if (overBudget()) {
+                    logger.warn("{} is over its time budget, stopping with {} booked and {} candidate(s) left",
+                            this.getClass().getSimpleName(), signedUpAppointments.size(), queue.size() + 1);
                     break;
                 }
-                
-                Appointment nextAppointment = validAppointments.get(0);
-                logger.info("Step 5.{}.c: Attempting signup for appointment: {}", iteration, nextAppointment);
+                logger.info("Step 4: Attempting signup for appointment: {} ({} candidate(s) queued)", nextAppointment, queue.size());
                 
                 if (signup(nextAppointment)) {
                     signedUpAppointments.add(nextAppointment);
                     recordSignup(nextAppointment);
                     logger.info("Successfully signed up for appointment");
+                    for (Appointment queued : queue) {
+                        SlotInfo slot = appointmentToSlotMap.get(queued);
+                        if (!rejected.contains(queued) && slot != null && protocol.isAffectedBy(slot, nextAppointment)
+                                && stale.add(queued)) {
+                            reevaluated++;
+                        }
+                    }
                 } else {
                     logger.warn("Failed to sign up for appointment");
                     if (emailService != null) {
@@ -172,12 +219,10 @@ public abstract class WebsiteNavigator {
                         );
                     }
                 }
-                
-                remainingAppointments.remove(nextAppointment);
-                iteration++;
             }
             
-            logger.info("runFlow completed: Successfully signed up for {} appointments", signedUpAppointments.size());
+            logger.info("runFlow completed: Successfully signed up for {} appointments ({} candidate(s), {} re-evaluated)",
+                    signedUpAppointments.size(), rank.size(), reevaluated);
             
         } catch (Exception e) {
             logger.error("Error during runFlow: {}", e.getMessage(), e);
@@ -188,16 +233,262 @@ public abstract class WebsiteNavigator {
                     e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()
                 );
             }
+        } finally {
+            flowLock.unlock();
         }
         
         return signedUpAppointments;
     }
 
+    // Waits for flowLock unless a snipe holds or wants it, or the run is over budget; false means skip the sweep
+    private boolean acquireForSweep() {
+        try {
+            while (!flowLock.tryLock(LOCK_POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (snipePending || overBudget()) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (snipePending) {
+            flowLock.unlock();
+            return false;
+        }
+        return true;
+    }
+
+    // Checks the given candidates in one batch and adds those that failed, or have no slot, to rejected
+    private void revalidate(Set<Appointment> candidates, Set<Appointment> rejected) {
+        List<Appointment> checked = new ArrayList<>();
+        List<SlotInfo> slots = new ArrayList<>();
+        for (Appointment appointment : candidates) {
+            SlotInfo slot = appointmentToSlotMap.get(appointment);
+            if (slot == null) {
+                rejected.add(appointment);
+            } else {
+                checked.add(appointment);
+                slots.add(slot);
+            }
+        }
+        List<ValidityVerdict> verdicts = protocol.checkValidity(slots);
+        for (int i = 0; i < verdicts.size(); i++) {
+            if (!verdicts.get(i).valid()) {
+                rejected.add(checked.get(i));
+                logger.info("Dropping candidate {}: {}", checked.get(i), verdicts.get(i).reason());
+            }
+        }
+    }
+
+    /**
+     * Leases one browser lane per site in {@code sites} and scans each once to warm it, waits for
+     * {@code releaseAt}, then rescans only those held lanes every {@code refreshIntervalMs} until a slot
+     * matching config and protocol shows up or {@code window} elapses. The lanes are released before the first
+     * such slot goes to {@link #signup(Appointment)}, which picks the lane still showing it.
+     * <p>
+     * A sweep running at warm-up time is asked to stop and given until {@code releaseAt} to let go of the pages;
+     * if it has not, the snipe is abandoned. Sweeps started while the snipe runs are skipped.
+     */
+    public SnipeResult snipe(List<WebsiteSpecs> sites, Instant releaseAt, long refreshIntervalMs, Duration window) throws InterruptedException {
+        String name = this.getClass().getSimpleName();
+        long releaseMs = releaseAt.toEpochMilli();
+        snipePending = true;
+        try {
+            requestStop();
+            if (!flowLock.tryLock(Math.max(0, releaseMs - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                logger.warn("{} is still busy with a sweep at release time, abandoning the snipe for {}", name, releaseAt);
+                return new SnipeResult(name, releaseAt, 0, -1, null);
+            }
+        } finally {
+            if (!flowLock.isHeldByCurrentThread()) {
+                snipePending = false;
+            }
+        }
+        try {
+            int refreshes = 0;
+            Appointment found = null;
+            Map<WebsiteSpecs, PlaywrightWrapper> held = new LinkedHashMap<>();
+            try {
+                for (WebsiteSpecs site : sites) {
+                    PlaywrightWrapper lane = playwrightPool.lease(PAGE_LEASE_TIMEOUT_MS);
+                    held.put(site, lane);
+                    lane.recycleIfPending();
+                }
+                appointmentToSlotMap.clear();
+                held.forEach((site, lane) -> scanOn(lane, site));
+                logger.info("{} warmed up {} site(s) for release at {}", name, held.size(), releaseAt);
+
+                long waitMs = releaseMs - System.currentTimeMillis();
+                if (waitMs > 0) {
+                    Thread.sleep(waitMs);
+                }
+
+                long deadlineMs = releaseMs + window.toMillis();
+                while (System.currentTimeMillis() < deadlineMs) {
+                    long iterationStart = System.currentTimeMillis();
+                    appointmentToSlotMap.clear();
+                    List<Appointment> scanned = new ArrayList<>();
+                    held.forEach((site, lane) -> scanned.addAll(refreshOn(lane, site)));
+                    List<Appointment> candidates = filterForConfig(scanned);
+                    refreshes++;
+
+                    if (!candidates.isEmpty()) {
+                        found = selectTopCandidates(candidates, 1).get(0);
+                        break;
+                    }
+
+                    long sleepMs = refreshIntervalMs - (System.currentTimeMillis() - iterationStart);
+                    if (sleepMs > 0) {
+                        Thread.sleep(sleepMs);
+                    }
+                }
+            } finally {
+                held.values().forEach(playwrightPool::release);
+            }
+
+            if (found == null) {
+                logger.info("{} found no matching slot within {} s of release ({} refreshes)", name, window.toSeconds(), refreshes);
+                return new SnipeResult(name, releaseAt, refreshes, -1, null);
+            }
+            lastSignupClickMs = 0;
+            boolean booked = signup(found);
+            long releaseToClickMs = lastSignupClickMs >= releaseMs ? lastSignupClickMs - releaseMs : -1;
+            if (booked) {
+                recordSignup(found);
+            } else if (emailService != null) {
+                emailService.sendErrorEmail(name, found.toString(),
+                        "Signup method returned false during release-time snipe");
+            }
+            return new SnipeResult(name, releaseAt, refreshes, releaseToClickMs, booked ? found : null);
+        } finally {
+            snipePending = false;
+            flowLock.unlock();
+        }
+    }
+
+    /**
+     * Scans {@code site} on {@code lane} and returns its valid appointments, to warm a held page. The default
+     * ignores the lane and runs {@link #navigate(List)} on that site alone.
+     */
+    protected List<Appointment> scanOn(PlaywrightWrapper lane, WebsiteSpecs site) {
+        return navigate(List.of(site));
+    }
+
+    /**
+     * Re-reads a page warmed by {@link #scanOn} as cheaply as the site allows, once per snipe refresh. Refreshes
+     * are not recorded as scans. The default falls back to {@link #scanOn}.
+     */
+    protected List<Appointment> refreshOn(PlaywrightWrapper lane, WebsiteSpecs site) {
+        return scanOn(lane, site);
+    }
+
 
     public List<Appointment> runAll() {
         return runFlow();
     }
 
+    public List<Appointment> runAll(List<WebsiteSpecs> sites) {
+        return runFlow(sites);
+    }
+
+    /**
+     * Like {@link #runAll(List)}, but once {@code budget} has elapsed no further site scan or booking is started.
+     * A booking already in progress always finishes, and whatever was booked by then is returned.
+     */
+    public List<Appointment> runAll(List<WebsiteSpecs> sites, Duration budget) {
+        deadlineNanos.set(System.nanoTime() + budget.toNanos());
+        try {
+            return runFlow(sites);
+        } finally {
+            deadlineNanos.set(null);
+        }
+    }
+
+    /**
+     * Makes a running {@link #runAll(List, Duration)} wrap up at its next check. Has no effect between runs.
+     */
+    public void requestStop() {
+        deadlineNanos.getAndUpdate(deadline -> deadline == null ? null : System.nanoTime());
+    }
+
+    protected boolean overBudget() {
+        Long deadline = deadlineNanos.get();
+        return deadline != null && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Slots found by the last scan of {@code site}, available or not; empty if it has not been scanned.
+     */
+    public List<SlotInfo> getLastScan(WebsiteSpecs site) {
+        return lastScans.getOrDefault(site.url(), List.of());
+    }
+
+    protected void recordScan(WebsiteSpecs site, List<SlotInfo> slots) {
+        lastScans.put(site.url(), List.copyOf(slots));
+        scorer.observe(site.url(), slots);
+        if (observationRecorder != null) {
+            observationRecorder.record(site.url(), slots, Instant.now());
+        }
+    }
+
+
+    /**
+     * Runs {@code task} for every site on a page leased from the pool, at most pool-size sites at a time.
+     * Results are returned in the same order as {@code sites}; a site whose task fails yields an empty list.
+     */
+    protected <T> List<List<T>> scanInParallel(List<WebsiteSpecs> sites, BiFunction<PlaywrightWrapper, WebsiteSpecs, List<T>> task) {
+        List<List<T>> results = new ArrayList<>();
+        if (sites.isEmpty()) {
+            return results;
+        }
+
+        int workers = Math.min(playwrightPool.getSize(), sites.size());
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (WebsiteSpecs specs : sites) {
+                futures.add(executor.submit(() -> {
+                    if (overBudget()) {
+                        logger.warn("Skipping {}: {} is over its time budget", specs.url(), this.getClass().getSimpleName());
+                        return List.<T>of();
+                    }
+                    PlaywrightWrapper lane = playwrightPool.lease(PAGE_LEASE_TIMEOUT_MS);
+                    try {
+                        lane.recycleIfPending();
+                        return task.apply(lane, specs);
+                    } finally {
+                        playwrightPool.release(lane);
+                    }
+                }));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    logger.error("Scan failed for site {}: {}", sites.get(i).url(), e.getCause().getMessage());
+                    results.add(List.of());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while scanning sites in parallel");
+            while (results.size() < sites.size()) {
+                results.add(List.of());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Called by {@link #signup(Appointment)} implementations right before they click the slot's signup button.
+     */
+    protected void markSignupClicked() {
+        lastSignupClickMs = System.currentTimeMillis();
+    }
 
     protected Appointment slotInfoToAppointment(SlotInfo slot) {
         String location = "UBC";
@@ -213,33 +504,20 @@ public abstract class WebsiteNavigator {
     }
 
 
-    protected boolean matchesSlotConfig(Appointment appointment, SlotConfig slotConfig) {
-        try {
-            String appointmentDay = appointment.start().getDayOfWeek().toString().substring(0, 3);
-            if (!appointmentDay.equalsIgnoreCase(slotConfig.day().substring(0, 3))) {
-                return false;
+    /**
+     * The {@code k} best candidates, best first, as ranked by the {@link CandidateScorer}.
+     */
+    protected List<Appointment> selectTopCandidates(List<Appointment> appointments, int k) {
+        LocalDateTime now = LocalDateTime.now();
+        AvailabilityMatcher matcher = navigatorConfig.matcher();
+        return CandidateScorer.topK(appointments, appointment -> {
+            SlotInfo slot = appointmentToSlotMap.get(appointment);
+            if (slot == null) {
+                return Double.NEGATIVE_INFINITY;
             }
-            
-            LocalTime slotStart = LocalTime.parse(slotConfig.start());
-            LocalTime slotEnd = LocalTime.parse(slotConfig.end());
-            
-            LocalTime appointmentStartTime = appointment.start().toLocalTime();
-            LocalTime appointmentEndTime = appointment.end().toLocalTime();
-
-            return (!appointmentStartTime.isBefore(slotStart) && appointmentStartTime.isBefore(slotEnd)) ||
-                              (appointmentEndTime.isAfter(slotStart) && !appointmentEndTime.isAfter(slotEnd)) ||
-                              (!appointmentStartTime.isAfter(slotStart) && !appointmentEndTime.isBefore(slotEnd));
-        } catch (Exception e) {
-            logger.debug("Error matching slot config: {}", e.getMessage());
-            return false;
-        }
-    }
-
-    protected List<Appointment> filterByPriority(List<Appointment> appointments, int targetPriority) {
-        if (targetPriority == 1) {
-            return new ArrayList<>(appointments);
-        }
-        return new ArrayList<>();
+            return scorer.score(slot, navigatorConfig.sitePriority(slot.sourceUrl()),
+                    matcher.preferenceOf(appointment.start(), appointment.end()), matcher.size(), now);
+        }, k);
     }
 
     private void recordSignup(Appointment appointment) {
@@ -0,0 +1,143 @@
+package com.autosignup.service;
+
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.WebsiteSpecs;
+import com.autosignup.util.ReleaseHistory;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a next-run time per site and picks each site's polling interval from its {@link ReleaseHistory}:
+ * hours of the week in which the slot list has often changed are polled at the minimum interval, hours in
+ * which it never does at the maximum. Until an hour has enough observations the configured
+ * {@code check_interval_seconds} is used. Histories are persisted so the model survives restarts.
+ * <p>
+ * Off by default; with {@code scheduler.adaptive.enabled=true} it replaces the fixed
+ * {@code scheduler.interval.ms} sweep.
+ */
+@Service
+public class AdaptivePollScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePollScheduler.class);
+
+    private final BotDBManager botDBManager;
+    private final ConfigLoaderService configLoader;
+
+    @Getter
+    @Value("${scheduler.adaptive.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${scheduler.adaptive.min-interval-seconds:60}")
+    private long minIntervalSeconds = 60;
+
+    @Value("${scheduler.adaptive.max-interval-seconds:1800}")
+    private long maxIntervalSeconds = 1800;
+
+    // Change rate at which an hour counts as fully hot
+    @Value("${scheduler.adaptive.hot-change-rate:0.25}")
+    private double hotChangeRate = 0.25;
+
+    @Value("${scheduler.adaptive.min-observations:4}")
+    private int minObservations = 4;
+
+    @Value("${calendar.timezone:UTC}")
+    private String timezone = "UTC";
+
+    private final Map<String, ReleaseHistory> histories = new ConcurrentHashMap<>();
+    private final Map<String, Long> nextRunMs = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    public AdaptivePollScheduler(BotDBManager botDBManager, ConfigLoaderService configLoader) {
+        this.botDBManager = botDBManager;
+        this.configLoader = configLoader;
+    }
+
+    /**
+     * Sites whose next run is due at {@code nowMs}. Sites not seen before are always due.
+     */
+    public List<WebsiteSpecs> dueSites(List<WebsiteSpecs> sites, long nowMs) {
+        return sites.stream()
+                .filter(site -> nextRunMs.getOrDefault(site.url(), 0L) <= nowMs)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Learns from a completed scan of {@code site} and schedules its next run. An empty slot list is what a
+     * failed scan returns, so it is not compared against the previous scan; otherwise both the failure and the
+     * recovery would count as changes.
+     */
+    public void recordScan(WebsiteSpecs site, List<SlotInfo> slots, long nowMs) {
+        String url = site.url();
+        ReleaseHistory history = histories.computeIfAbsent(url, botDBManager::loadReleaseHistory);
+        ZonedDateTime now = Instant.ofEpochMilli(nowMs).atZone(ZoneId.of(timezone));
+        int bucket = ReleaseHistory.bucketOf(now);
+
+        if (slots.isEmpty()) {
+            logger.info("No slots from {}, not counting this scan as an observation", url);
+        } else {
+            String fingerprint = fingerprint(slots);
+            String previous = fingerprints.put(url, fingerprint);
+            if (previous != null) {
+                boolean changed = !previous.equals(fingerprint);
+                history.observe(bucket, changed);
+                botDBManager.saveReleaseHistoryBucket(url, bucket, history.observations(bucket), history.changes(bucket));
+                if (changed) {
+                    logger.info("Slot list changed on {} (hour-of-week {})", url, bucket);
+                }
+            }
+        }
+
+        long nextMs = nextRun(history, now).toInstant().toEpochMilli();
+        nextRunMs.put(url, nextMs);
+        logger.info("Next scan of {} in {} s", url, (nextMs - nowMs) / 1000);
+    }
+
+    /**
+     * Earliest next run over all scheduled sites, or {@code Long.MAX_VALUE} when none are scheduled yet.
+     */
+    public long nextRunAtMs() {
+        return nextRunMs.values().stream().mapToLong(Long::longValue).min().orElse(Long.MAX_VALUE);
+    }
+
+    public long intervalSeconds(ReleaseHistory history, int bucket) {
+        int observed = history.observations(bucket);
+        if (observed < minObservations) {
+            return Math.max(minIntervalSeconds, Math.min(maxIntervalSeconds, configLoader.getCheckIntervalSeconds()));
+        }
+        double rate = (double) history.changes(bucket) / observed;
+        double heat = Math.min(1.0, rate / hotChangeRate);
+        return Math.round(maxIntervalSeconds - (maxIntervalSeconds - minIntervalSeconds) * heat);
+    }
+
+    private ZonedDateTime nextRun(ReleaseHistory history, ZonedDateTime now) {
+        int bucket = ReleaseHistory.bucketOf(now);
+        long interval = intervalSeconds(history, bucket);
+        ZonedDateTime next = now.plusSeconds(interval);
+
+        // Wake up at the top of the hour if the next hour is hotter than this one
+        ZonedDateTime nextHour = now.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        if (next.isAfter(nextHour)
+                && intervalSeconds(history, (bucket + 1) % ReleaseHistory.BUCKETS) < interval) {
+            return nextHour;
+        }
+        return next;
+    }
+
+    private static String fingerprint(List<SlotInfo> slots) {
+        return slots.stream()
+                .map(slot -> slot.start() + (slot.available() ? "+" : "-"))
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
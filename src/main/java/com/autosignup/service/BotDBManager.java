@@ -1,7 +1,16 @@
 package com.autosignup.service;
 
 import com.autosignup.model.Appointment;
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.OutboxEntry;
 import com.autosignup.model.Signup;
+import com.autosignup.model.SlotObservation;
+import com.autosignup.util.BookingIndex;
+import com.autosignup.util.ConnectionPool;
+import com.autosignup.util.ParameterBinder;
+import com.autosignup.util.ReleaseHistory;
+import com.autosignup.util.RowMapper;
+import com.autosignup.util.SchemaMigrator;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.Getter;
@@ -9,13 +18,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.sqlite.SQLiteConfig;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class BotDBManager {
@@ -23,8 +37,46 @@ public class BotDBManager {
     @Value("${db.url}")
     private String DB_URL;
     private static final Integer APPOINTMENT_PER_WEEKS = 1;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Append only: a released migration must never change, since databases that ran it will not run it again
+    private static final List<SchemaMigrator.Migration> MIGRATIONS = List.of(
+            SchemaMigrator.Migration.script(1, "baseline", "db/migration/V1__baseline.sql"),
+            SchemaMigrator.Migration.code(2, "appointment event columns", BotDBManager::addEventColumns),
+            SchemaMigrator.Migration.script(3, "release history and outbox", "db/migration/V3__release_history_and_outbox.sql"),
+            SchemaMigrator.Migration.code(4, "appointment epoch columns", BotDBManager::addEpochColumns),
+            SchemaMigrator.Migration.chunked(5, "backfill epoch timestamps", BotDBManager::backfillEpochTimestamps),
+            SchemaMigrator.Migration.script(6, "appointments epoch index", "db/migration/V6__appointments_epoch_index.sql"),
+            SchemaMigrator.Migration.script(7, "slot observations", "db/migration/V7__slot_observations.sql"),
+            SchemaMigrator.Migration.script(8, "hourly slot observations", "db/migration/V8__slot_observation_hourly.sql"));
+    private static final int BOOKING_FETCH_SIZE = 500;
+    private static final int INCREMENTAL_AUTO_VACUUM = 2;
+    // Rows per multi-row INSERT; six parameters each keeps a statement under SQLite's 999-parameter floor
+    private static final int OBSERVATION_ROWS_PER_INSERT = 100;
+    @Value("${db.migration.batch-size:500}")
+    private int migrationBatchSize = 500;
+    @Value("${outbox.enabled:true}")
+    private boolean outboxEnabled = true;
+    @Value("${db.booking-index.enabled:true}")
+    private boolean bookingIndexEnabled = true;
+    // Null when disabled, in which case protocols fall back to SQL
+    @Getter
+    private BookingIndex bookingIndex;
+    @Value("${db.pool.size:4}")
+    private int poolSize = 4;
+    @Value("${db.pool.lease-timeout-ms:5000}")
+    private long leaseTimeoutMs = 5000;
+    @Value("${db.statement-cache-size:32}")
+    private int statementCacheSize = 32;
+    @Value("${db.cache-size-kb:8192}")
+    private int cacheSizeKb = 8192;
+    @Value("${db.busy-timeout-ms:5000}")
+    private int busyTimeoutMs = 5000;
+    // The only connection that writes; transactional methods synchronize on this manager to use it
     @Getter
     private Connection connection;
+    // Read-only connections, so reads run alongside each other and alongside the writer under WAL
+    private ConnectionPool readers;
+    private ConnectionPool writerAsReader;
 
     public BotDBManager() {
     }
@@ -37,8 +89,17 @@ public class BotDBManager {
     @PostConstruct
     private void initializeDatabase() {
         try {
-            connection = DriverManager.getConnection(DB_URL);
-            createTables();
+            connection = sqliteConfig(false).createConnection(DB_URL);
+            enableIncrementalVacuumIfNew();
+            try (Statement stmt = connection.createStatement()) {
+                // Persistent for the database file, so readers opened afterwards inherit it
+                stmt.execute("PRAGMA journal_mode = WAL");
+            }
+            migrateSchema();
+            if (bookingIndexEnabled) {
+                bookingIndex = loadBookingIndex();
+            }
+            readers = openReaders();
             logger.info("Database initialized successfully");
         } catch (SQLException e) {
             logger.error("Failed to initialize database", e);
@@ -46,66 +107,664 @@ public class BotDBManager {
         }
     }
 
-    private void createTables() throws SQLException {
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("schema.sql");
-             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+    private SQLiteConfig sqliteConfig(boolean readOnly) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setCacheSize(-cacheSizeKb);
+        config.setBusyTimeout(busyTimeoutMs);
+        config.setReadOnly(readOnly);
+        return config;
+    }
+
+    // An in-memory database exists only on its own connection, so there reads share the writer
+    private ConnectionPool openReaders() throws SQLException {
+        if (poolSize <= 0 || DB_URL.contains(":memory:")) {
+            return null;
+        }
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < poolSize; i++) {
+            connections.add(sqliteConfig(true).createConnection(DB_URL));
+        }
+        logger.info("Opened {} read connection(s) in WAL mode", poolSize);
+        return new ConnectionPool(connections, statementCacheSize, leaseTimeoutMs);
+    }
 
-            StringBuilder sql = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sql.append(line).append("\n");
+    private <T> T withReader(ConnectionPool.SqlFunction<ConnectionPool.PooledConnection, T> work) throws SQLException {
+        if (readers != null) {
+            return readers.withConnection(work);
+        }
+        synchronized (this) {
+            if (writerAsReader == null) {
+                writerAsReader = new ConnectionPool(List.of(connection), statementCacheSize, leaseTimeoutMs);
             }
+            return writerAsReader.withConnection(work);
+        }
+    }
 
-            String[] statements = sql.toString().split(";");
-            for (String statement : statements) {
-                statement = statement.trim();
-                if (!statement.isEmpty()) {
-                    try (Statement stmt = connection.createStatement()) {
-                        stmt.execute(statement);
-                    }
+    public ConnectionPool.PoolStats poolStats() {
+        ConnectionPool pool = readers != null ? readers : writerAsReader;
+        return pool != null ? pool.snapshot() : new ConnectionPool.PoolStats(0, 0, 0, 0, 0, 0);
+    }
+
+    private void migrateSchema() throws SQLException {
+        new SchemaMigrator(connection, MIGRATIONS, migrationBatchSize).migrate();
+    }
+
+    // auto_vacuum only takes effect on a file with no tables that is not yet in WAL mode; existing files need a VACUUM
+    private void enableIncrementalVacuumIfNew() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM sqlite_master")) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+        }
+    }
+
+    // Column migrations check before adding, since databases from before schema_version may already have them
+
+    private static void addEventColumns(Connection connection) throws SQLException {
+        for (String column : List.of("event_name", "summary", "description", "location", "google_event_id")) {
+            addColumnIfMissing(connection, "appointments", column, "TEXT");
+        }
+    }
+
+    // Wall-clock start and end read as UTC, in epoch seconds, for the protocol range queries
+    private static void addEpochColumns(Connection connection) throws SQLException {
+        addColumnIfMissing(connection, "appointments", "start_epoch", "INTEGER");
+        addColumnIfMissing(connection, "appointments", "end_epoch", "INTEGER");
+    }
+
+    /**
+     * Fills the epoch columns for the next {@code batchSize} appointments by id. Rows whose text timestamp
+     * cannot be parsed keep null epochs and are logged; the walk moves past them either way.
+     */
+    private static long backfillEpochTimestamps(Connection connection, long afterId, int batchSize) throws SQLException {
+        long lastId;
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT MAX(id) FROM (SELECT id FROM appointments WHERE id > ? ORDER BY id LIMIT ?)")) {
+            stmt.setLong(1, afterId);
+            stmt.setInt(2, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                lastId = rs.next() ? rs.getLong(1) : 0;
+                if (rs.wasNull()) {
+                    return afterId;
+                }
+            }
+        }
+        String backfill = "UPDATE appointments SET " +
+                "start_epoch = CAST(strftime('%s', appointment_start_timestamp) AS INTEGER), " +
+                "end_epoch = CAST(strftime('%s', appointment_end_timestamp) AS INTEGER) " +
+                "WHERE id > ? AND id <= ? AND start_epoch IS NULL AND appointment_start_timestamp IS NOT NULL";
+        try (PreparedStatement stmt = connection.prepareStatement(backfill)) {
+            stmt.setLong(1, afterId);
+            stmt.setLong(2, lastId);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM appointments " +
+                "WHERE id > ? AND id <= ? AND start_epoch IS NULL AND appointment_start_timestamp IS NOT NULL")) {
+            stmt.setLong(1, afterId);
+            stmt.setLong(2, lastId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    logger.warn("{} appointment(s) with ids {}..{} have unparseable timestamps and no epoch times",
+                            rs.getInt(1), afterId + 1, lastId);
                 }
             }
+        }
+        return lastId;
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to create database tables", e);
-            throw new SQLException("Table creation failed", e);
+    private static void addColumnIfMissing(Connection connection, String table, String column, String type) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+            logger.info("Added column {}.{}", table, column);
         }
     }
 
-    public ResultSet runQuery(String sql, List<Object> params) throws SQLException {
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        for (int i = 0; i < params.size(); i++) {
-            stmt.setObject(i + 1, params.get(i));
+    private BookingIndex loadBookingIndex() throws SQLException {
+        BookingIndex index = new BookingIndex();
+        stream("SELECT appointment_type, start_epoch, end_epoch FROM appointments WHERE start_epoch IS NOT NULL",
+                ParameterBinder.NONE, BOOKING_FETCH_SIZE, BotDBManager::bookingRow, row -> addBooking(index, row));
+        logger.info("Loaded {} booking(s) into the booking index", index.size());
+        return index;
+    }
+
+    /**
+     * Loads the bookings of the given types that start or end inside {@code [from, to]}, or span it, in one
+     * query over the (type, start, end) index.
+     */
+    public BookingIndex loadBookings(Collection<AppointmentType> types, LocalDateTime from, LocalDateTime to)
+            throws SQLException {
+        BookingIndex index = new BookingIndex();
+        if (types.isEmpty()) {
+            return index;
+        }
+        String sql = bookingsQuery(types.size());
+        List<Object> params = new ArrayList<>(types);
+        params.add(to);
+        params.add(from);
+        stream(sql, ParameterBinder.of(params.toArray()), BOOKING_FETCH_SIZE, BotDBManager::bookingRow, row -> addBooking(index, row));
+        return index;
+    }
+
+    /**
+     * The query behind {@link #loadBookings}: binds {@code typeCount} types, then the window's end and start.
+     */
+    public static String bookingsQuery(int typeCount) {
+        return "SELECT appointment_type, start_epoch, end_epoch FROM appointments " +
+                "WHERE appointment_type IN (" + String.join(", ", Collections.nCopies(typeCount, "?")) + ") " +
+                "AND start_epoch <= ? AND end_epoch >= ?";
+    }
+
+    public static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private record BookingRow(String type, long startEpoch, long endEpoch) {
+    }
+
+    private static BookingRow bookingRow(ResultSet rs) throws SQLException {
+        return new BookingRow(rs.getString(1), rs.getLong(2), rs.getLong(3));
+    }
+
+    private void addBooking(BookingIndex index, BookingRow row) {
+        try {
+            index.add(AppointmentType.valueOf(row.type()),
+                    LocalDateTime.ofEpochSecond(row.startEpoch(), 0, ZoneOffset.UTC),
+                    LocalDateTime.ofEpochSecond(row.endEpoch(), 0, ZoneOffset.UTC));
+        } catch (RuntimeException e) {
+            logger.warn("Skipping unreadable appointment row: {}", e.getMessage());
         }
-        return stmt.executeQuery();
     }
 
-    public boolean recordSignup(Signup signup) {
+    /**
+     * Runs a read on a pooled connection and maps every row. The result set is closed before this returns;
+     * the prepared statement stays in the connection's statement cache.
+     */
+    public <T> List<T> query(String sql, ParameterBinder binder, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        stream(sql, binder, 0, mapper, rows::add);
+        return rows;
+    }
+
+    public <T> Optional<T> queryFirst(String sql, ParameterBinder binder, RowMapper<T> mapper) throws SQLException {
+        return withReader(reader -> {
+            PreparedStatement stmt = reader.prepare(sql);
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Optional.ofNullable(mapper.map(rs)) : Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Maps rows one at a time into {@code sink} without collecting them, fetching {@code fetchSize} rows at a
+     * time (0 for the driver default). Returns the number of rows read.
+     */
+    public <T> long stream(String sql, ParameterBinder binder, int fetchSize, RowMapper<T> mapper, Consumer<T> sink)
+            throws SQLException {
+        return withReader(reader -> {
+            PreparedStatement stmt = reader.prepare(sql);
+            binder.bind(stmt);
+            stmt.setFetchSize(fetchSize);
+            long count = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(mapper.map(rs));
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Records the appointment and, in the same transaction, queues its calendar event in the outbox.
+     */
+    public synchronized boolean recordSignup(Signup signup) {
         Appointment appointment = signup.Appointment();
 
-        String sql = "INSERT INTO appointments (site_name, appointment_start_timestamp, appointment_end_timestamp, appointment_type) VALUES (?, datetime(?), datetime(?), ?)";
+        String sql = "INSERT INTO appointments (site_name, appointment_start_timestamp, appointment_end_timestamp, appointment_type, " +
+                "event_name, summary, description, location, start_epoch, end_epoch) VALUES (?, datetime(?), datetime(?), ?, ?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            String formattedStartTimestamp = (appointment.start().format(DateTimeFormatter
-                    .ofPattern("yyyy-MM-dd HH:mm:ss")));
-            String formattedEndTimestamp = (appointment.end().format(DateTimeFormatter
-                    .ofPattern("yyyy-MM-dd HH:mm:ss")));
-
-            stmt.setString(1, signup.URL());
-            stmt.setString(2, formattedStartTimestamp);
-            stmt.setString(3, formattedEndTimestamp);
-            stmt.setString(4, appointment.appointmentType().toString());
-            stmt.executeUpdate();
+        try {
+            connection.setAutoCommit(false);
+            long appointmentId;
+            String formattedStartTimestamp = appointment.start().format(TIMESTAMP_FORMAT);
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                String formattedEndTimestamp = appointment.end().format(TIMESTAMP_FORMAT);
+
+                stmt.setString(1, signup.URL());
+                stmt.setString(2, formattedStartTimestamp);
+                stmt.setString(3, formattedEndTimestamp);
+                stmt.setString(4, appointment.appointmentType().toString());
+                stmt.setString(5, appointment.eventName());
+                stmt.setString(6, appointment.summary());
+                stmt.setString(7, appointment.description());
+                stmt.setString(8, appointment.location());
+                stmt.setLong(9, toEpoch(appointment.start()));
+                stmt.setLong(10, toEpoch(appointment.end()));
+                stmt.executeUpdate();
+            }
+            try (Statement stmt = connection.createStatement();
+                 ResultSet keys = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                keys.next();
+                appointmentId = keys.getLong(1);
+            }
+            if (outboxEnabled) {
+                insertOutbox(appointmentId, OutboxEntry.Kind.CALENDAR_EVENT, null);
+            }
+            connection.commit();
+            if (bookingIndex != null) {
+                bookingIndex.add(appointment.appointmentType(), appointment.start(), appointment.end());
+            }
 
             logger.info("Recorded signup: {} - {}", signup.URL(), formattedStartTimestamp);
         } catch (SQLException e) {
+            rollback();
             logger.error("Failed to record signup", e);
+        } finally {
+            restoreAutoCommit();
         }
         return true;
     }
 
+    /**
+     * Marks up to {@code limit} due outbox rows as in flight and returns them, oldest first.
+     */
+    public synchronized List<OutboxEntry> claimOutboxBatch(int limit) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        String sql = "SELECT o.id, o.appointment_id, o.kind, o.payload, o.attempts, a.appointment_start_timestamp, " +
+                "a.appointment_end_timestamp, a.appointment_type, a.event_name, a.summary, a.description, a.location " +
+                "FROM outbox o JOIN appointments a ON a.id = o.appointment_id " +
+                "WHERE o.status = 'PENDING' AND o.next_attempt_at <= ? ORDER BY o.id LIMIT ?";
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setLong(1, System.currentTimeMillis());
+                stmt.setInt(2, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Appointment appointment = new Appointment(
+                                LocalDateTime.parse(rs.getString("appointment_start_timestamp"), TIMESTAMP_FORMAT),
+                                LocalDateTime.parse(rs.getString("appointment_end_timestamp"), TIMESTAMP_FORMAT),
+                                rs.getString("event_name"), rs.getString("summary"), rs.getString("description"),
+                                rs.getString("location"), AppointmentType.valueOf(rs.getString("appointment_type")));
+                        entries.add(new OutboxEntry(rs.getLong("id"), rs.getLong("appointment_id"),
+                                OutboxEntry.Kind.valueOf(rs.getString("kind")), rs.getString("payload"),
+                                rs.getInt("attempts"), appointment));
+                    }
+                }
+            }
+            try (PreparedStatement stmt = connection.prepareStatement("UPDATE outbox SET status = 'IN_FLIGHT' WHERE id = ?")) {
+                for (OutboxEntry entry : entries) {
+                    stmt.setLong(1, entry.id());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            logger.error("Failed to claim outbox entries", e);
+            return List.of();
+        } finally {
+            restoreAutoCommit();
+        }
+        return entries;
+    }
+
+    /**
+     * Completes a calendar entry: stores the Google event id and queues the confirmation email, atomically.
+     * Returns false if nothing was written.
+     */
+    public synchronized boolean completeCalendarEntry(OutboxEntry entry, String googleEventId, String eventJson) {
+        try {
+            connection.setAutoCommit(false);
+            markOutboxDone(entry.id());
+            try (PreparedStatement stmt = connection.prepareStatement("UPDATE appointments SET google_event_id = ? WHERE id = ?")) {
+                stmt.setString(1, googleEventId);
+                stmt.setLong(2, entry.appointmentId());
+                stmt.executeUpdate();
+            }
+            insertOutbox(entry.appointmentId(), OutboxEntry.Kind.CONFIRMATION_EMAIL, eventJson);
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            rollback();
+            logger.error("Failed to complete calendar outbox entry {}", entry.id(), e);
+            return false;
+        } finally {
+            restoreAutoCommit();
+        }
+    }
+
+    public synchronized boolean completeOutboxEntry(long id) {
+        try {
+            markOutboxDone(id);
+            return true;
+        } catch (SQLException e) {
+            logger.error("Failed to complete outbox entry {}", id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Records a failed delivery. The entry goes back to PENDING until {@code nextAttemptAtMs}, or to FAILED
+     * when {@code retry} is false. Returns false if the update failed.
+     */
+    public synchronized boolean failOutboxEntry(long id, String error, boolean retry, long nextAttemptAtMs) {
+        String sql = "UPDATE outbox SET status = ?, attempts = attempts + 1, last_error = ?, next_attempt_at = ? WHERE id = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, retry ? "PENDING" : "FAILED");
+            stmt.setString(2, error);
+            stmt.setLong(3, nextAttemptAtMs);
+            stmt.setLong(4, id);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            logger.error("Failed to update outbox entry {}", id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Puts an in-flight entry back to PENDING as it was, for when its outcome could not be recorded.
+     */
+    public synchronized boolean releaseOutboxEntry(long id) {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "UPDATE outbox SET status = 'PENDING' WHERE id = ? AND status = 'IN_FLIGHT'")) {
+            stmt.setLong(1, id);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            logger.error("Failed to release outbox entry {}, it stays in flight until the next restart", id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns entries left in flight by a previous run to PENDING so they are replayed.
+     */
+    public synchronized int resetInFlightOutbox() {
+        try (Statement stmt = connection.createStatement()) {
+            return stmt.executeUpdate("UPDATE outbox SET status = 'PENDING' WHERE status = 'IN_FLIGHT'");
+        } catch (SQLException e) {
+            logger.error("Failed to reset in-flight outbox entries", e);
+            return 0;
+        }
+    }
+
+    public int countOutbox(String status) {
+        try {
+            return queryFirst("SELECT COUNT(*) FROM outbox WHERE status = ?", ParameterBinder.of(status), rs -> rs.getInt(1))
+                    .orElse(0);
+        } catch (SQLException e) {
+            logger.error("Failed to count outbox entries", e);
+            return 0;
+        }
+    }
+
+    private void insertOutbox(long appointmentId, OutboxEntry.Kind kind, String payload) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO outbox (appointment_id, kind, payload) VALUES (?, ?, ?)")) {
+            stmt.setLong(1, appointmentId);
+            stmt.setString(2, kind.name());
+            stmt.setString(3, payload);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void markOutboxDone(long id) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("UPDATE outbox SET status = 'DONE' WHERE id = ?")) {
+            stmt.setLong(1, id);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.error("Rollback failed", e);
+        }
+    }
+
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.error("Failed to restore auto-commit", e);
+        }
+    }
+
+    public ReleaseHistory loadReleaseHistory(String siteUrl) {
+        ReleaseHistory history = new ReleaseHistory();
+        String sql = "SELECT hour_of_week, observations, changes FROM site_release_history WHERE site_url = ?";
+        try {
+            stream(sql, ParameterBinder.of(siteUrl), 0,
+                    rs -> new int[]{rs.getInt("hour_of_week"), rs.getInt("observations"), rs.getInt("changes")},
+                    row -> {
+                        if (row[0] >= 0 && row[0] < ReleaseHistory.BUCKETS) {
+                            history.load(row[0], row[1], row[2]);
+                        }
+                    });
+        } catch (SQLException e) {
+            logger.error("Failed to load release history for {}", siteUrl, e);
+        }
+        return history;
+    }
+
+    public synchronized void saveReleaseHistoryBucket(String siteUrl, int hourOfWeek, int observations, int changes) {
+        String sql = "INSERT INTO site_release_history (site_url, hour_of_week, observations, changes) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT(site_url, hour_of_week) DO UPDATE SET observations = excluded.observations, changes = excluded.changes";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, siteUrl);
+            stmt.setInt(2, hourOfWeek);
+            stmt.setInt(3, observations);
+            stmt.setInt(4, changes);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Failed to save release history for {}", siteUrl, e);
+        }
+    }
+
+    /**
+     * Appends {@code observations} in a single transaction using multi-row inserts, and returns how many were
+     * written. Observations without a start or end are skipped. On failure nothing is written.
+     */
+    public synchronized int recordObservations(List<SlotObservation> observations) {
+        List<SlotObservation> rows = observations.stream()
+                .filter(o -> o.start() != null && o.end() != null && o.siteUrl() != null)
+                .toList();
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            connection.setAutoCommit(false);
+            int fullChunks = rows.size() / OBSERVATION_ROWS_PER_INSERT;
+            if (fullChunks > 0) {
+                try (PreparedStatement stmt = connection.prepareStatement(observationInsert(OBSERVATION_ROWS_PER_INSERT))) {
+                    for (int chunk = 0; chunk < fullChunks; chunk++) {
+                        int from = chunk * OBSERVATION_ROWS_PER_INSERT;
+                        bindObservations(stmt, rows.subList(from, from + OBSERVATION_ROWS_PER_INSERT));
+                        stmt.executeUpdate();
+                    }
+                }
+            }
+            List<SlotObservation> remainder = rows.subList(fullChunks * OBSERVATION_ROWS_PER_INSERT, rows.size());
+            if (!remainder.isEmpty()) {
+                try (PreparedStatement stmt = connection.prepareStatement(observationInsert(remainder.size()))) {
+                    bindObservations(stmt, remainder);
+                    stmt.executeUpdate();
+                }
+            }
+            connection.commit();
+            return rows.size();
+        } catch (SQLException e) {
+            rollback();
+            logger.error("Failed to record {} slot observation(s)", rows.size(), e);
+            return 0;
+        } finally {
+            restoreAutoCommit();
+        }
+    }
+
+    private static String observationInsert(int rows) {
+        return "INSERT INTO slot_observations (site_url, appointment_type, start_epoch, end_epoch, available, seen_at) VALUES "
+                + String.join(", ", Collections.nCopies(rows, "(?, ?, ?, ?, ?, ?)"));
+    }
+
+    private static void bindObservations(PreparedStatement stmt, List<SlotObservation> rows) throws SQLException {
+        int index = 1;
+        for (SlotObservation row : rows) {
+            stmt.setString(index++, row.siteUrl());
+            stmt.setString(index++, row.appointmentType() != null ? row.appointmentType().name() : null);
+            stmt.setLong(index++, toEpoch(row.start()));
+            stmt.setLong(index++, toEpoch(row.end()));
+            stmt.setInt(index++, row.available() ? 1 : 0);
+            stmt.setLong(index++, row.seenAt().getEpochSecond());
+        }
+    }
+
+    /**
+     * Folds the oldest {@code batchSize} observations seen before {@code cutoffEpoch} into
+     * {@code slot_observation_hourly} and deletes them, in one transaction. Returns the number of rows removed,
+     * which is below {@code batchSize} once nothing older is left.
+     */
+    public synchronized int rollUpObservations(long cutoffEpoch, int batchSize) {
+        String lastIdSql = "SELECT MAX(id) FROM (SELECT id FROM slot_observations WHERE seen_at < ? ORDER BY id LIMIT ?)";
+        String rollUpSql = "INSERT INTO slot_observation_hourly (site_url, appointment_type, start_epoch, end_epoch, hour_epoch, " +
+                "observations, available_count, first_seen, last_seen) " +
+                "SELECT site_url, appointment_type, start_epoch, end_epoch, seen_at / 3600 * 3600, " +
+                "COUNT(*), SUM(available), MIN(seen_at), MAX(seen_at) " +
+                "FROM slot_observations WHERE id <= ? AND seen_at < ? " +
+                "GROUP BY site_url, appointment_type, start_epoch, end_epoch, seen_at / 3600 " +
+                "ON CONFLICT(site_url, start_epoch, end_epoch, hour_epoch) DO UPDATE SET " +
+                "observations = observations + excluded.observations, " +
+                "available_count = available_count + excluded.available_count, " +
+                "first_seen = MIN(first_seen, excluded.first_seen), last_seen = MAX(last_seen, excluded.last_seen)";
+        String deleteSql = "DELETE FROM slot_observations WHERE id <= ? AND seen_at < ?";
+        try {
+            connection.setAutoCommit(false);
+            long lastId;
+            try (PreparedStatement stmt = connection.prepareStatement(lastIdSql)) {
+                stmt.setLong(1, cutoffEpoch);
+                stmt.setInt(2, batchSize);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    lastId = rs.next() ? rs.getLong(1) : 0;
+                    if (rs.wasNull()) {
+                        lastId = 0;
+                    }
+                }
+            }
+            if (lastId == 0) {
+                connection.commit();
+                return 0;
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(rollUpSql)) {
+                stmt.setLong(1, lastId);
+                stmt.setLong(2, cutoffEpoch);
+                stmt.executeUpdate();
+            }
+            int deleted;
+            try (PreparedStatement stmt = connection.prepareStatement(deleteSql)) {
+                stmt.setLong(1, lastId);
+                stmt.setLong(2, cutoffEpoch);
+                deleted = stmt.executeUpdate();
+            }
+            connection.commit();
+            return deleted;
+        } catch (SQLException e) {
+            rollback();
+            logger.error("Failed to roll up slot observations", e);
+            return 0;
+        } finally {
+            restoreAutoCommit();
+        }
+    }
+
+    /**
+     * Deletes up to {@code batchSize} delivered outbox rows created before {@code cutoffEpoch}.
+     */
+    public synchronized int deleteCompletedOutbox(long cutoffEpoch, int batchSize) {
+        String sql = "DELETE FROM outbox WHERE id IN (SELECT id FROM outbox WHERE status = 'DONE' " +
+                "AND created_at < datetime(?, 'unixepoch') LIMIT ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, cutoffEpoch);
+            stmt.setInt(2, batchSize);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Failed to delete completed outbox entries", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Returns up to {@code maxFreePages} free pages to the file system and refreshes planner statistics. Each
+     * step is short, so the writer is never held for long. A database created without incremental auto-vacuum
+     * is only converted, by a full VACUUM that blocks all writes while it runs, when {@code convertAutoVacuum}
+     * is set; otherwise its free pages stay in the file for reuse.
+     */
+    public synchronized void compact(int maxFreePages, boolean convertAutoVacuum) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            int autoVacuum;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                autoVacuum = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (autoVacuum != INCREMENTAL_AUTO_VACUUM && convertAutoVacuum) {
+                logger.info("Converting database to incremental auto-vacuum with a one-time VACUUM");
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                stmt.execute("VACUUM");
+            } else if (autoVacuum != INCREMENTAL_AUTO_VACUUM) {
+                logger.info("Database has no incremental auto-vacuum, skipping page reclaim; set " +
+                        "maintenance.convert-auto-vacuum=true to convert it once with a full VACUUM");
+            } else {
+                // incremental_vacuum frees one page per step; execute() steps once, executeUpdate() runs it to the end
+                stmt.executeUpdate("PRAGMA incremental_vacuum(" + Math.max(1, maxFreePages) + ")");
+            }
+            // Samples each index instead of reading it whole, which keeps ANALYZE short on a large database
+            stmt.execute("PRAGMA analysis_limit = 1000");
+            stmt.execute("ANALYZE");
+            stmt.execute("PRAGMA optimize");
+            try (ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+                if (rs.next() && rs.getInt(1) != 0) {
+                    logger.info("WAL checkpoint was blocked by a reader and will complete later");
+                }
+            }
+        }
+    }
+
+    /**
+     * Size of the main database file in bytes, not counting the WAL.
+     */
+    public long databaseSizeBytes() {
+        try {
+            return queryFirst("SELECT page_count * page_size FROM pragma_page_count(), pragma_page_size()",
+                    ParameterBinder.NONE, rs -> rs.getLong(1)).orElse(0L);
+        } catch (SQLException e) {
+            logger.error("Failed to read database size", e);
+            return 0;
+        }
+    }
+
     @PreDestroy
     public void close() {
+        if (readers != null) {
+            logger.info("Read pool: {}", readers.snapshot());
+            readers.close();
+            readers = null;
+        }
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
@@ -6,6 +6,7 @@ import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInsta
 import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
@@ -55,6 +56,14 @@ public class CalendarManager {
     }
 
     public Event createCalendarEvent(Appointment appointment) {
+        return createCalendarEvent(appointment, null);
+    }
+
+    /**
+     * Creates the event under a caller-chosen id (lowercase a-v and digits, 5-1024 chars) when {@code eventId}
+     * is set. Creating the same id twice returns the existing event, which makes replays idempotent.
+     */
+    public Event createCalendarEvent(Appointment appointment, String eventId) {
         // Convert LocalDateTime to ZonedDateTime in the configured timezone
         ZoneId zoneId = ZoneId.of(timezone);
         ZonedDateTime startZoned = appointment.start().atZone(zoneId);
@@ -74,6 +83,7 @@ public class CalendarManager {
                 .setTimeZone(timezone);
 
         Event event = new Event()
+                .setId(eventId)
                 .setSummary(appointment.summary())
                 .setLocation(appointment.location())
                 .setDescription(appointment.description());
@@ -94,6 +104,17 @@ public class CalendarManager {
                     .setSendUpdates("all")
                     .execute();
             return created;
+        } catch (GoogleJsonResponseException e) {
+            if (eventId != null && e.getStatusCode() == 409) {
+                logger.info("Calendar event {} already exists, reusing it", eventId);
+                try {
+                    return service.events().get(CALENDAR_ID, eventId).execute();
+                } catch (IOException getError) {
+                    throw new RuntimeException(getError);
+                }
+            }
+            logger.error("Error when creating calendar event");
+            throw new RuntimeException(e);
         } catch (IOException e) {
             logger.error("Error when creating calendar event");
             throw new RuntimeException(e);
@@ -1,8 +1,10 @@
 package com.autosignup.service;
 
 import com.autosignup.model.config.AppConfig;
+import com.autosignup.model.config.AvailabilityMatcher;
 import com.autosignup.model.config.NavigatorConfig;
 import com.autosignup.model.config.SignupUserConfig;
+import com.autosignup.model.config.SiteConfig;
 import com.autosignup.model.config.SlotConfig;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
@@ -18,6 +20,7 @@ import java.util.Map;
 @Service
 public class ConfigLoaderService {
     private static final Logger logger = LoggerFactory.getLogger(ConfigLoaderService.class);
+    private static final int DEFAULT_CHECK_INTERVAL_SECONDS = 300;
     private AppConfig appConfig;
 
     @PostConstruct
@@ -60,7 +63,30 @@ public class ConfigLoaderService {
                     }
                 }
                 
-                navigators.put(navigatorName, new NavigatorConfig(slots));
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> sitesData =
+                    (List<Map<String, Object>>) navigatorData.get("sites");
+
+                List<SiteConfig> sites = new ArrayList<>();
+
+                if (sitesData != null) {
+                    for (Map<String, Object> siteData : sitesData) {
+                        String name = (String) siteData.get("name");
+                        String url = (String) siteData.get("url");
+                        Object priority = siteData.get("priority");
+                        if (url == null || !(priority instanceof Integer) || (int) priority < 1) {
+                            throw new IllegalArgumentException("Navigator '" + navigatorName
+                                    + "': site entries need a url and a priority of 1 or more: " + siteData);
+                        }
+                        sites.add(new SiteConfig(name, url, (int) priority, List.of()));
+                    }
+                }
+
+                try {
+                    navigators.put(navigatorName, new NavigatorConfig(slots, sites, AvailabilityMatcher.compile(slots)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Navigator '" + navigatorName + "': " + e.getMessage(), e);
+                }
             }
             
             SignupUserConfig signupUser = null;
@@ -83,8 +109,8 @@ public class ConfigLoaderService {
             
             logger.info("Successfully loaded config with {} navigators", navigators.size());
             for (Map.Entry<String, NavigatorConfig> entry : navigators.entrySet()) {
-                logger.info("Navigator '{}': {} slots configured", 
-                    entry.getKey(), entry.getValue().slots().size());
+                logger.info("Navigator '{}': {} slots, {} prioritised site(s) configured",
+                    entry.getKey(), entry.getValue().slots().size(), entry.getValue().sites().size());
             }
             
         } catch (Exception e) {
@@ -108,6 +134,13 @@ public class ConfigLoaderService {
         return config;
     }
     
+    public int getCheckIntervalSeconds() {
+        if (appConfig == null || appConfig.check_interval_seconds() <= 0) {
+            return DEFAULT_CHECK_INTERVAL_SECONDS;
+        }
+        return appConfig.check_interval_seconds();
+    }
+    
     public SignupUserConfig getSignupUserConfig() {
         if (appConfig == null) {
             logger.warn("Config not loaded");
@@ -0,0 +1,158 @@
+package com.autosignup.service;
+
+import com.autosignup.model.AppointmentType;
+import com.autosignup.util.ParameterBinder;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps the database from growing without bound. Slot observations past retention are rolled into hourly
+ * aggregates and delivered outbox rows are dropped, both in small transactions with a pause in between so
+ * sweeps and bookings never wait long for the writer. The file is then compacted and its statistics
+ * refreshed. Size and the timings of a few representative queries are logged before and after.
+ */
+@Service
+public class DatabaseMaintenanceService {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseMaintenanceService.class);
+
+    @Value("${maintenance.enabled:true}")
+    private boolean enabled = true;
+
+    @Setter
+    @Value("${maintenance.observation-retention-days:14}")
+    private int observationRetentionDays = 14;
+
+    @Setter
+    @Value("${maintenance.outbox-retention-days:30}")
+    private int outboxRetentionDays = 30;
+
+    @Setter
+    @Value("${maintenance.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Setter
+    @Value("${maintenance.batch-pause-ms:50}")
+    private long batchPauseMs = 50;
+
+    // Free pages returned to the file system per run, 4 KB each at the default page size
+    @Value("${maintenance.vacuum-max-pages:2000}")
+    private int vacuumMaxPages = 2000;
+
+    // A database created before incremental auto-vacuum needs one full VACUUM to convert; it blocks all writes
+    @Setter
+    @Value("${maintenance.convert-auto-vacuum:false}")
+    private boolean convertAutoVacuum = false;
+
+    // Upper bound on batches per table per run; a large backlog is worked off over several runs
+    @Value("${maintenance.max-batches:500}")
+    private int maxBatches = 500;
+
+    private final BotDBManager botDBManager;
+
+    public record MaintenanceReport(long sizeBeforeBytes, long sizeAfterBytes, int observationsRolledUp,
+                                    int outboxDeleted, Map<String, Long> probesBeforeUs,
+                                    Map<String, Long> probesAfterUs, long durationMs) {
+        @Override
+        public String toString() {
+            return String.format("size %d KB -> %d KB, observations rolled up=%d, outbox deleted=%d, " +
+                            "query us before=%s after=%s, took %d ms",
+                    sizeBeforeBytes / 1024, sizeAfterBytes / 1024, observationsRolledUp, outboxDeleted,
+                    probesBeforeUs, probesAfterUs, durationMs);
+        }
+    }
+
+    public DatabaseMaintenanceService(BotDBManager botDBManager) {
+        this.botDBManager = botDBManager;
+    }
+
+    @Scheduled(cron = "${maintenance.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            run(Instant.now());
+        }
+    }
+
+    public MaintenanceReport run(Instant now) {
+        long started = System.nanoTime();
+        long sizeBefore = botDBManager.databaseSizeBytes();
+        Map<String, Long> probesBefore = probe(now);
+
+        long observationCutoff = now.minus(Duration.ofDays(observationRetentionDays)).getEpochSecond();
+        int rolledUp = inBatches("slot observations", () -> botDBManager.rollUpObservations(observationCutoff, batchSize));
+        long outboxCutoff = now.minus(Duration.ofDays(outboxRetentionDays)).getEpochSecond();
+        int outboxDeleted = inBatches("outbox", () -> botDBManager.deleteCompletedOutbox(outboxCutoff, batchSize));
+
+        try {
+            botDBManager.compact(vacuumMaxPages, convertAutoVacuum);
+        } catch (SQLException e) {
+            logger.error("Database compaction failed", e);
+        }
+
+        MaintenanceReport report = new MaintenanceReport(sizeBefore, botDBManager.databaseSizeBytes(), rolledUp,
+                outboxDeleted, probesBefore, probe(now), (System.nanoTime() - started) / 1_000_000);
+        logger.info("Database maintenance: {}", report);
+        return report;
+    }
+
+    private int inBatches(String table, IntSupplier batch) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int removed = batch.getAsInt();
+            total += removed;
+            if (removed < batchSize) {
+                return total;
+            }
+            try {
+                Thread.sleep(batchPauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Maintenance of {} interrupted after {} row(s)", table, total);
+                return total;
+            }
+        }
+        logger.info("Maintenance of {} stopped after {} batches, the rest is left for the next run", table, maxBatches);
+        return total;
+    }
+
+    // The reads the bot makes most: the protocol booking window and recent observations
+    private Map<String, Long> probe(Instant now) {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        LocalDateTime today = LocalDateTime.ofInstant(now, ZoneOffset.UTC);
+        timings.put("bookings", timeUs(() -> botDBManager.loadBookings(EnumSet.allOf(AppointmentType.class),
+                today.minusWeeks(1), today.plusWeeks(4))));
+        timings.put("recentObservations", timeUs(() -> botDBManager.queryFirst(
+                "SELECT COUNT(*) FROM slot_observations WHERE seen_at >= ?",
+                ParameterBinder.of(now.minus(Duration.ofDays(1)).getEpochSecond()), rs -> rs.getLong(1))));
+        return timings;
+    }
+
+    @FunctionalInterface
+    private interface Probe {
+        void run() throws SQLException;
+    }
+
+    private static long timeUs(Probe probe) {
+        long started = System.nanoTime();
+        try {
+            probe.run();
+        } catch (SQLException e) {
+            logger.warn("Maintenance probe failed: {}", e.getMessage());
+            return -1;
+        }
+        return (System.nanoTime() - started) / 1_000;
+    }
+}
@@ -68,10 +68,13 @@ public class EmailService {
         }
     }
 
-    private void sendEmail(String subject, String body) {
+    /**
+     * @return false if the session is not set up or the message could not be sent
+     */
+    private boolean sendEmail(String subject, String body) {
         if (session == null) {
             logger.warn("Email session not initialized, cannot send email");
-            return;
+            return false;
         }
         try {
             Message message = new MimeMessage(session);
@@ -82,20 +85,27 @@ public class EmailService {
 
             Transport.send(message);
             logger.info("Email sent successfully: {}", subject);
-
+            return true;
         } catch (Exception e) {
             logger.error("Failed to send email: {}", e.getMessage());
+            return false;
         }
     }
 
-    public void sendEmailWithCalendarEvent(Event event) {
+    /**
+     * @return whether the confirmation email was sent, so callers that queue it can retry
+     */
+    public boolean sendEmailWithCalendarEvent(Event event) {
         try {
             String htmlBody = buildEmailFromTemplate(event);
-            sendEmail("Appointment Scheduled with AutosignupBot", htmlBody);
-            logger.info("Confirmation email sent with calendar link");
+            boolean sent = sendEmail("Appointment Scheduled with AutosignupBot", htmlBody);
+            if (sent) {
+                logger.info("Confirmation email sent with calendar link");
+            }
+            return sent;
         } catch (Exception gcalException) {
             logger.warn("Could not use Google Calendar API: {}", gcalException.getMessage());
-            logger.info("Falling back to ICS email attachment method...");
+            return false;
         }
     }
     
@@ -1,14 +1,31 @@
 package com.autosignup.service;
 
 import com.autosignup.model.Appointment;
+import com.autosignup.model.SweepReport;
+import com.autosignup.model.WebsiteSpecs;
 import com.autosignup.navigators.WebsiteNavigator;
-import com.google.api.services.calendar.model.Event;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -16,26 +33,197 @@ public class OrchestratorService {
     private static final Logger logger = LoggerFactory.getLogger(OrchestratorService.class);
 
     private final List<WebsiteNavigator> navigators;
-    private final CalendarManager calendarManager;
     private final EmailService emailService;
+    private final AdaptivePollScheduler pollScheduler;
+    private final Environment environment;
+    private final SideEffectPipeline sideEffects;
+    private final OutboxRelay outboxRelay;
+    private final SlotObservationRecorder observationRecorder;
 
-    public void runAllNavigators() {
+    // Default time budget per navigator; override with orchestrator.timeout-seconds.<NavigatorClassName>
+    @Value("${orchestrator.timeout-seconds:600}")
+    private long defaultTimeoutSeconds = 600;
+
+    @Value("${orchestrator.straggler-seconds:120}")
+    private long stragglerSeconds = 120;
+
+    // How long past its budget a navigator gets to finish the site or booking it is in the middle of
+    @Value("${orchestrator.stop-grace-seconds:60}")
+    private long stopGraceSeconds = 60;
+
+    // One thread per navigator, so a hung site only ever blocks its own navigator
+    private final Map<WebsiteNavigator, ExecutorService> bulkheads = new ConcurrentHashMap<>();
+    private final Map<WebsiteNavigator, Future<List<Appointment>>> running = new ConcurrentHashMap<>();
+    // Runs that outlived their budget and grace; what they booked is reported by the first sweep after they end
+    private final Map<WebsiteNavigator, Future<List<Appointment>>> overdue = new ConcurrentHashMap<>();
+
+    public SweepReport runAllNavigators() {
         logger.info("Starting execution of {} navigator(s)", navigators.size());
+        Map<WebsiteNavigator, Callable<List<Appointment>>> tasks = new LinkedHashMap<>();
+        for (WebsiteNavigator nav : navigators) {
+            tasks.put(nav, () -> nav.runAll(nav.getWebsites(), budget(nav)));
+        }
+        SweepReport report = runConcurrently(tasks);
+        observationRecorder.flush();
+        logger.info("Completed execution of all navigators: {}", report);
+        logger.info("Side-effect pipeline: {}, slot observations: {}", sideEffects.snapshot(), observationRecorder.snapshot());
+        return report;
+    }
+
+    /**
+     * Runs each navigator over only the sites the adaptive scheduler says are due, then feeds the scans back.
+     */
+    public SweepReport runDueSites() {
+        Map<WebsiteNavigator, Callable<List<Appointment>>> tasks = new LinkedHashMap<>();
         for (WebsiteNavigator nav : navigators) {
-            String navigatorName = nav.getClass().getSimpleName();
-            logger.info("Running navigator: {}", navigatorName);
+            List<WebsiteSpecs> due = pollScheduler.dueSites(nav.getWebsites(), System.currentTimeMillis());
+            if (due.isEmpty()) {
+                continue;
+            }
+            logger.info("Running navigator {} on {} due site(s)", nav.getClass().getSimpleName(), due.size());
+            tasks.put(nav, () -> {
+                List<Appointment> appointments = nav.runAll(due, budget(nav));
+                long scannedAt = System.currentTimeMillis();
+                for (WebsiteSpecs site : due) {
+                    pollScheduler.recordScan(site, nav.getLastScan(site), scannedAt);
+                }
+                return appointments;
+            });
+        }
+        if (tasks.isEmpty()) {
+            return new SweepReport(List.of(), Map.of(), List.of(), List.of(), List.of(), List.of());
+        }
+        SweepReport report = runConcurrently(tasks);
+        observationRecorder.flush();
+        logger.info("Due-site sweep finished: {}", report);
+        logger.info("Side-effect pipeline: {}, slot observations: {}", sideEffects.snapshot(), observationRecorder.snapshot());
+        return report;
+    }
+
+    /**
+     * Runs every task on its navigator's own thread. Navigators stop starting new sites and bookings once their
+     * budget is spent and return what they booked so far; a run still going after the grace period is asked to
+     * stop and left to finish in the background, never interrupted mid-booking.
+     */
+    private SweepReport runConcurrently(Map<WebsiteNavigator, Callable<List<Appointment>>> tasks) {
+        List<Appointment> appointments = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        collectOverdue(appointments, failed);
+
+        List<String> skipped = new ArrayList<>();
+        Map<WebsiteNavigator, Future<List<Appointment>>> submitted = new LinkedHashMap<>();
+        Map<WebsiteNavigator, Long> startedNanos = new LinkedHashMap<>();
+
+        for (Map.Entry<WebsiteNavigator, Callable<List<Appointment>>> entry : tasks.entrySet()) {
+            WebsiteNavigator nav = entry.getKey();
+            Future<List<Appointment>> previous = running.get(nav);
+            if (previous != null && !previous.isDone()) {
+                logger.warn("Navigator {} is still running from an earlier sweep, skipping it", name(nav));
+                skipped.add(name(nav));
+                continue;
+            }
             nav.setEmailService(emailService);
-            List<Appointment> appointments = nav.runAll();
-            if (appointments.isEmpty()) {
-                logger.info("Navigator {} returned no appointments (may be disabled or no matches found)", navigatorName);
-            } else {
-                logger.info("Navigator {} found {} appointment(s)", navigatorName, appointments.size());
-                appointments.forEach(app -> {
-                    Event e = calendarManager.createCalendarEvent(app);
-                    emailService.sendEmailWithCalendarEvent(e);
-                });
+            startedNanos.put(nav, System.nanoTime());
+            Future<List<Appointment>> future = bulkhead(nav).submit(entry.getValue());
+            running.put(nav, future);
+            submitted.put(nav, future);
+        }
+
+        Map<String, Long> durationsMs = new LinkedHashMap<>();
+        List<String> stragglers = new ArrayList<>();
+        List<String> timedOut = new ArrayList<>();
+
+        for (Map.Entry<WebsiteNavigator, Future<List<Appointment>>> entry : submitted.entrySet()) {
+            WebsiteNavigator nav = entry.getKey();
+            String navigatorName = name(nav);
+            long started = startedNanos.get(nav);
+            long budgetNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds(navigatorName));
+            long waitUntil = started + budgetNanos + TimeUnit.SECONDS.toNanos(stopGraceSeconds);
+            try {
+                List<Appointment> found = entry.getValue().get(Math.max(0, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS);
+                long elapsedNanos = System.nanoTime() - started;
+                durationsMs.put(navigatorName, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                if (elapsedNanos > budgetNanos) {
+                    logger.warn("Navigator {} ran past its {} s budget and stopped early", navigatorName, timeoutSeconds(navigatorName));
+                    timedOut.add(navigatorName);
+                } else if (elapsedNanos > TimeUnit.SECONDS.toNanos(stragglerSeconds)) {
+                    stragglers.add(navigatorName);
+                }
+                handleAppointments(navigatorName, found);
+                appointments.addAll(found);
+            } catch (TimeoutException e) {
+                logger.error("Navigator {} is still busy {} s past its {} s budget, asking it to stop; its bookings will be " +
+                        "reported once it returns", navigatorName, stopGraceSeconds, timeoutSeconds(navigatorName));
+                nav.requestStop();
+                overdue.put(nav, entry.getValue());
+                timedOut.add(navigatorName);
+            } catch (ExecutionException e) {
+                logger.error("Navigator {} failed: {}", navigatorName, e.getCause().getMessage(), e.getCause());
+                failed.add(navigatorName);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while waiting for navigator {}", navigatorName);
+                failed.add(navigatorName);
             }
         }
-        logger.info("Completed execution of all navigators");
+        return new SweepReport(appointments, durationsMs, stragglers, timedOut, failed, skipped);
+    }
+
+    // Picks up the results of overdue runs that have finished since the last sweep
+    private void collectOverdue(List<Appointment> appointments, List<String> failed) {
+        for (Iterator<Map.Entry<WebsiteNavigator, Future<List<Appointment>>>> it = overdue.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<WebsiteNavigator, Future<List<Appointment>>> entry = it.next();
+            if (!entry.getValue().isDone()) {
+                continue;
+            }
+            it.remove();
+            String navigatorName = name(entry.getKey());
+            try {
+                List<Appointment> found = entry.getValue().get();
+                logger.info("Overdue run of navigator {} finished", navigatorName);
+                handleAppointments(navigatorName, found);
+                appointments.addAll(found);
+            } catch (ExecutionException e) {
+                logger.error("Overdue run of navigator {} failed: {}", navigatorName, e.getCause().getMessage(), e.getCause());
+                failed.add(navigatorName);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void handleAppointments(String navigatorName, List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            logger.info("Navigator {} returned no appointments (may be disabled or no matches found)", navigatorName);
+        } else {
+            logger.info("Navigator {} found {} appointment(s)", navigatorName, appointments.size());
+            outboxRelay.publish(appointments);
+        }
+    }
+
+    private ExecutorService bulkhead(WebsiteNavigator nav) {
+        return bulkheads.computeIfAbsent(nav, n -> Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "navigator-" + name(n));
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    private Duration budget(WebsiteNavigator nav) {
+        return Duration.ofSeconds(timeoutSeconds(name(nav)));
+    }
+
+    private long timeoutSeconds(String navigatorName) {
+        return environment.getProperty("orchestrator.timeout-seconds." + navigatorName, Long.class, defaultTimeoutSeconds);
+    }
+
+    private static String name(WebsiteNavigator nav) {
+        return nav.getClass().getSimpleName();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(ExecutorService::shutdownNow);
     }
 }
@@ -0,0 +1,195 @@
+package com.autosignup.service;
+
+import com.autosignup.model.Appointment;
+import com.autosignup.model.OutboxEntry;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.calendar.model.Event;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the calendar events and confirmation emails queued in the SQLite outbox by
+ * {@link BotDBManager#recordSignup}. Rows are claimed in batches and handed to the {@link SideEffectPipeline}
+ * for a single attempt each; retries and backoff are kept in the outbox rows, so they survive restarts. Rows left
+ * in flight by a crash are replayed on startup. Calendar events are created under an id derived from
+ * the appointment row, so a replay after a crash finds the existing event instead of creating a second one.
+ */
+@Service
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final long MAX_BACKOFF_MS = 30 * 60_000L;
+
+    private final BotDBManager botDBManager;
+    private final CalendarManager calendarManager;
+    private final EmailService emailService;
+    private final SideEffectPipeline sideEffects;
+
+    @Getter
+    @Value("${outbox.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${outbox.batch-size:20}")
+    private int batchSize = 20;
+
+    @Value("${outbox.max-attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${outbox.backoff-ms:5000}")
+    private long backoffMs = 5000;
+
+    // dispatch() runs here, never on a sweep or scheduler thread; one queued request absorbs any further ones
+    private final ExecutorService relay = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+
+    public OutboxRelay(BotDBManager botDBManager, CalendarManager calendarManager, EmailService emailService,
+                       SideEffectPipeline sideEffects) {
+        this.botDBManager = botDBManager;
+        this.calendarManager = calendarManager;
+        this.emailService = emailService;
+        this.sideEffects = sideEffects;
+    }
+
+    @PostConstruct
+    public void replayAfterRestart() {
+        if (!enabled) {
+            return;
+        }
+        int reset = botDBManager.resetInFlightOutbox();
+        int pending = botDBManager.countOutbox("PENDING");
+        if (pending > 0) {
+            logger.info("Replaying {} pending outbox entr(ies), {} of them interrupted by the last shutdown", pending, reset);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        relay.shutdown();
+        try {
+            relay.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hands side effects of freshly booked appointments on. With the outbox their rows were already written
+     * together with the booking, so this only wakes the relay thread; without it they go straight to the pipeline.
+     */
+    public void publish(List<Appointment> booked) {
+        if (booked.isEmpty()) {
+            return;
+        }
+        if (enabled) {
+            requestDispatch();
+            return;
+        }
+        booked.forEach(app -> sideEffects.submit("calendar event for " + app, () -> {
+            Event e = calendarManager.createCalendarEvent(app);
+            sideEffects.submit("confirmation email for " + app, () -> {
+                if (!emailService.sendEmailWithCalendarEvent(e)) {
+                    throw new IllegalStateException("Confirmation email was not sent");
+                }
+            });
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-ms:10000}")
+    public void poll() {
+        requestDispatch();
+    }
+
+    /**
+     * Schedules a {@link #dispatch()} on the relay thread unless one is already waiting to run.
+     */
+    public void requestDispatch() {
+        if (!enabled || !dispatchRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            relay.execute(() -> {
+                dispatchRequested.set(false);
+                dispatch();
+            });
+        } catch (RejectedExecutionException e) {
+            dispatchRequested.set(false);
+            logger.debug("Outbox relay is shut down, not dispatching");
+        }
+    }
+
+    /**
+     * Claims every due outbox row and hands it to the pipeline, on the calling thread.
+     */
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        List<OutboxEntry> batch;
+        do {
+            batch = botDBManager.claimOutboxBatch(batchSize);
+            for (OutboxEntry entry : batch) {
+                sideEffects.submit(entry.kind() + " #" + entry.id(), () -> deliver(entry), 1);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void deliver(OutboxEntry entry) {
+        boolean recorded;
+        try {
+            recorded = switch (entry.kind()) {
+                case CALENDAR_EVENT -> {
+                    Event created = calendarManager.createCalendarEvent(entry.appointment(), eventId(entry));
+                    yield botDBManager.completeCalendarEntry(entry, created.getId(), GsonFactory.getDefaultInstance().toString(created));
+                }
+                case CONFIRMATION_EMAIL -> {
+                    Event event = GsonFactory.getDefaultInstance().fromString(entry.payload(), Event.class);
+                    if (!emailService.sendEmailWithCalendarEvent(event)) {
+                        throw new IOException("Confirmation email was not sent");
+                    }
+                    yield botDBManager.completeOutboxEntry(entry.id());
+                }
+            };
+            logger.info("Delivered {} for appointment {}", entry.kind(), entry.appointmentId());
+        } catch (IOException | RuntimeException e) {
+            int attempts = entry.attempts() + 1;
+            boolean retry = attempts < maxAttempts;
+            long delay = Math.min(backoffMs << Math.min(attempts - 1, 20), MAX_BACKOFF_MS);
+            recorded = botDBManager.failOutboxEntry(entry.id(), String.valueOf(e.getMessage()), retry, System.currentTimeMillis() + delay);
+            if (retry) {
+                logger.warn("Delivery of {} #{} failed (attempt {}), retrying in {} s: {}",
+                        entry.kind(), entry.id(), attempts, delay / 1000, e.getMessage());
+            } else {
+                logger.error("Giving up on {} #{} after {} attempts: {}", entry.kind(), entry.id(), attempts, e.getMessage());
+            }
+        }
+        if (!recorded) {
+            // Redelivery is safe: calendar events are created under a fixed id, at worst an email is sent twice
+            logger.warn("Could not record the outcome of {} #{}, returning it to the outbox", entry.kind(), entry.id());
+            botDBManager.releaseOutboxEntry(entry.id());
+        }
+    }
+
+    // Google event ids may only use lowercase a-v and digits; the start time keeps ids unique across fresh databases
+    private static String eventId(OutboxEntry entry) {
+        long startMinute = entry.appointment().start().toEpochSecond(ZoneOffset.UTC) / 60;
+        return "autosignup" + entry.appointmentId() + "t" + startMinute;
+    }
+}
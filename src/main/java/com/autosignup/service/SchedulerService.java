@@ -18,6 +18,7 @@ public class SchedulerService {
     private static final Logger logger = LoggerFactory.getLogger(SchedulerService.class);
 
     private final OrchestratorService orchestratorService;
+    private final AdaptivePollScheduler pollScheduler;
 
     @Value("${scheduler.interval.ms:300000}")
     private long schedulerIntervalMs;
@@ -31,6 +32,9 @@ public class SchedulerService {
 
     @Scheduled(fixedDelayString = "${scheduler.interval.ms:300000}")
     public void runScheduledCheck() {
+        if (pollScheduler.isEnabled()) {
+            return;
+        }
         logger.info("Starting navigator sweep.");
         orchestratorService.runAllNavigators();
         nextRunEpochMs.set(System.currentTimeMillis() + schedulerIntervalMs);
@@ -38,6 +42,21 @@ public class SchedulerService {
                 Duration.ofMillis(schedulerIntervalMs).toSeconds());
     }
 
+    /**
+     * Adaptive mode: wakes up often and scans only the sites whose own next-run time has passed.
+     */
+    @Scheduled(fixedDelayString = "${scheduler.adaptive.tick-ms:15000}")
+    public void runDueSites() {
+        if (!pollScheduler.isEnabled()) {
+            return;
+        }
+        orchestratorService.runDueSites();
+        long nextRunAtMs = pollScheduler.nextRunAtMs();
+        if (nextRunAtMs != Long.MAX_VALUE) {
+            nextRunEpochMs.set(nextRunAtMs);
+        }
+    }
+
     @Scheduled(fixedRate = 30000)
     public void logTimeUntilNextRun() {
         long remainingMillis = nextRunEpochMs.get() - System.currentTimeMillis();
@@ -46,4 +65,4 @@ public class SchedulerService {
         }
         logger.info("Next navigator sweep in {} seconds.", Duration.ofMillis(remainingMillis).toSeconds());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package com.autosignup.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs post-booking side effects (calendar events, emails) on a few worker threads behind a bounded queue, so
+ * the sweep thread can go straight back to scanning. Failed tasks are retried with exponential backoff; when
+ * the queue is full the submitting thread runs the task itself. Queued work is drained on shutdown.
+ */
+@Service
+public class SideEffectPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(SideEffectPipeline.class);
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    @Setter
+    @Value("${side-effects.max-attempts:4}")
+    private int maxAttempts = 4;
+
+    @Setter
+    @Value("${side-effects.backoff-ms:2000}")
+    private long backoffMs = 2000;
+
+    @Value("${side-effects.drain-timeout-seconds:60}")
+    private long drainTimeoutSeconds = 60;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+
+    public record PipelineStats(int queueDepth, int maxQueueDepth, long completed, long failed, long retries,
+                                long avgLatencyMs, long maxLatencyMs) {
+        @Override
+        public String toString() {
+            return String.format("queue=%d (peak %d), completed=%d, failed=%d, retries=%d, latency avg=%d ms max=%d ms",
+                    queueDepth, maxQueueDepth, completed, failed, retries, avgLatencyMs, maxLatencyMs);
+        }
+    }
+
+    public SideEffectPipeline(@Value("${side-effects.workers:2}") int workers,
+                              @Value("${side-effects.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "side-effect-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    logger.warn("Side-effect queue is full or shut down, running task on the caller thread");
+                    task.run();
+                });
+    }
+
+    public void submit(String description, Runnable action) {
+        submit(description, action, maxAttempts);
+    }
+
+    /**
+     * Like {@link #submit(String, Runnable)} with its own attempt limit; use 1 for tasks whose caller owns retries.
+     */
+    public void submit(String description, Runnable action, int attempts) {
+        long enqueuedNanos = System.nanoTime();
+        executor.execute(() -> runWithRetry(description, action, attempts, enqueuedNanos));
+        maxQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+    }
+
+    public PipelineStats snapshot() {
+        long done = completed.get();
+        return new PipelineStats(executor.getQueue().size(), maxQueueDepth.get(), done, failed.get(), retries.get(),
+                done == 0 ? 0 : totalLatencyMs.get() / done, maxLatencyMs.get());
+    }
+
+    private void runWithRetry(String description, Runnable action, int attempts, long enqueuedNanos) {
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                action.run();
+                long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedNanos);
+                completed.incrementAndGet();
+                totalLatencyMs.addAndGet(latencyMs);
+                maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+                logger.debug("Side effect '{}' done in {} ms", description, latencyMs);
+                return;
+            } catch (Exception e) {
+                if (attempt == attempts) {
+                    break;
+                }
+                long delay = Math.min(backoffMs << (attempt - 1), MAX_BACKOFF_MS);
+                logger.warn("Side effect '{}' failed (attempt {}/{}), retrying in {} ms: {}",
+                        description, attempt, attempts, delay, e.getMessage());
+                retries.incrementAndGet();
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        failed.incrementAndGet();
+        logger.error("Side effect '{}' failed permanently", description);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(drainTimeoutSeconds, TimeUnit.SECONDS)) {
+                int dropped = executor.shutdownNow().size();
+                logger.error("Side-effect pipeline did not drain within {} s, dropped {} queued task(s)",
+                        drainTimeoutSeconds, dropped);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+        logger.info("Side-effect pipeline drained: {}", snapshot());
+    }
+}
@@ -0,0 +1,112 @@
+package com.autosignup.service;
+
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.SlotObservation;
+import jakarta.annotation.PreDestroy;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the slots every scan sees and writes them to {@code slot_observations} in one transaction per
+ * sweep, so scanning threads only ever append to a list and never wait on the database. The buffer holds at
+ * most {@code observations.max-buffered} rows; anything beyond that is dropped and counted until the next flush.
+ */
+@Service
+public class SlotObservationRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(SlotObservationRecorder.class);
+
+    @Value("${observations.enabled:true}")
+    private boolean enabled = true;
+
+    @Setter
+    @Value("${observations.max-buffered:5000}")
+    private int maxBuffered = 5000;
+
+    private final BotDBManager botDBManager;
+    private List<SlotObservation> buffer = new ArrayList<>();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushMs = new AtomicLong();
+
+    public record RecorderStats(int buffered, long written, long dropped, long flushes, long avgFlushMs) {
+        @Override
+        public String toString() {
+            return String.format("buffered=%d, written=%d, dropped=%d, flushes=%d, flush avg=%d ms",
+                    buffered, written, dropped, flushes, avgFlushMs);
+        }
+    }
+
+    public SlotObservationRecorder(BotDBManager botDBManager) {
+        this.botDBManager = botDBManager;
+    }
+
+    public void record(String siteUrl, List<SlotInfo> slots, Instant seenAt) {
+        if (!enabled || slots.isEmpty()) {
+            return;
+        }
+        int overflow = 0;
+        boolean firstOverflow;
+        synchronized (this) {
+            firstOverflow = buffer.size() < maxBuffered;
+            for (SlotInfo slot : slots) {
+                if (buffer.size() < maxBuffered) {
+                    buffer.add(SlotObservation.of(slot, siteUrl, seenAt));
+                } else {
+                    overflow++;
+                }
+            }
+        }
+        if (overflow > 0) {
+            dropped.addAndGet(overflow);
+            if (firstOverflow) {
+                logger.warn("Slot observation buffer is full ({} rows); dropping observations until the next flush",
+                        maxBuffered);
+            }
+        }
+    }
+
+    /**
+     * Writes everything buffered so far in one transaction and returns the number of rows written.
+     */
+    public int flush() {
+        List<SlotObservation> batch;
+        synchronized (this) {
+            if (buffer.isEmpty()) {
+                return 0;
+            }
+            batch = buffer;
+            buffer = new ArrayList<>();
+        }
+        long started = System.nanoTime();
+        int count = botDBManager.recordObservations(batch);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        written.addAndGet(count);
+        flushes.incrementAndGet();
+        totalFlushMs.addAndGet(elapsedMs);
+        logger.debug("Wrote {} of {} slot observation(s) in {} ms", count, batch.size(), elapsedMs);
+        return count;
+    }
+
+    public synchronized RecorderStats snapshot() {
+        long flushCount = flushes.get();
+        return new RecorderStats(buffer.size(), written.get(), dropped.get(), flushCount,
+                flushCount == 0 ? 0 : totalFlushMs.get() / flushCount);
+    }
+
+    @PreDestroy
+    public void close() {
+        int count = flush();
+        if (count > 0) {
+            logger.info("Wrote {} buffered slot observation(s) on shutdown", count);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.autosignup.service;
+
+import com.autosignup.model.SnipeResult;
+import com.autosignup.model.WebsiteSpecs;
+import com.autosignup.model.config.ReleaseTime;
+import com.autosignup.navigators.WebsiteNavigator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Release-time sniping. The regular sweep runs every few minutes, which is too slow for slots published at a
+ * known instant, so for each configured release time this warms the releasing site's page shortly before,
+ * refreshes only that page in a tight loop from the release instant and books the first matching slot.
+ */
+@Service
+public class SniperService {
+    private static final Logger logger = LoggerFactory.getLogger(SniperService.class);
+    private static final int MAX_RESULTS = 50;
+
+    private final List<WebsiteNavigator> navigators;
+    private final EmailService emailService;
+    private final OutboxRelay outboxRelay;
+
+    @Value("${sniper.enabled:false}")
+    private boolean enabled;
+
+    // Weekly release instants, e.g. "SUN 09:00"
+    @Value("${sniper.release-times:}")
+    private List<String> releaseTimes = List.of();
+
+    @Value("${sniper.warmup-seconds:30}")
+    private long warmupSeconds = 30;
+
+    @Value("${sniper.refresh-interval-ms:250}")
+    private long refreshIntervalMs = 250;
+
+    @Value("${sniper.window-seconds:120}")
+    private long windowSeconds = 120;
+
+    @Value("${calendar.timezone:UTC}")
+    private String timezone = "UTC";
+
+    private ScheduledExecutorService executor;
+    // Plans the next release on its own thread so a long snipe never delays it
+    private ScheduledExecutorService rescheduler;
+    private final Deque<SnipeResult> results = new ArrayDeque<>();
+
+    public SniperService(List<WebsiteNavigator> navigators, EmailService emailService, OutboxRelay outboxRelay) {
+        this.navigators = navigators;
+        this.emailService = emailService;
+        this.outboxRelay = outboxRelay;
+    }
+
+    @PostConstruct
+    public void start() {
+        List<ReleaseTime> parsed = releaseTimes.stream().filter(t -> !t.isBlank()).map(ReleaseTime::parse).toList();
+        if (!enabled || parsed.isEmpty()) {
+            logger.info("Release-time sniping is disabled");
+            return;
+        }
+        executor = Executors.newScheduledThreadPool(Math.max(1, navigators.size()), daemon("sniper"));
+        rescheduler = Executors.newSingleThreadScheduledExecutor(daemon("sniper-scheduler"));
+        parsed.forEach(this::scheduleNext);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rescheduler != null) {
+            rescheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public synchronized List<SnipeResult> getRecentResults() {
+        return new ArrayList<>(results);
+    }
+
+    private void scheduleNext(ReleaseTime releaseTime) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of(timezone));
+        // Look past the warm-up so a release already inside it is not scheduled twice
+        ZonedDateTime releaseAt = releaseTime.nextAfter(now.plusSeconds(warmupSeconds));
+        long delayMs = Duration.between(now, releaseAt.minusSeconds(warmupSeconds)).toMillis();
+        logger.info("Next snipe for {} at {} (warm-up starts in {} s)", releaseTime, releaseAt, delayMs / 1000);
+
+        for (WebsiteNavigator navigator : navigators) {
+            List<WebsiteSpecs> sites = navigator.getWebsites().stream()
+                    .filter(site -> releaseTime.appliesTo(site.url()))
+                    .toList();
+            if (!sites.isEmpty()) {
+                executor.schedule(() -> snipe(navigator, sites, releaseAt), delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        rescheduler.schedule(() -> scheduleNext(releaseTime), delayMs + 1000, TimeUnit.MILLISECONDS);
+    }
+
+    private void snipe(WebsiteNavigator navigator, List<WebsiteSpecs> sites, ZonedDateTime releaseAt) {
+        String navigatorName = navigator.getClass().getSimpleName();
+        try {
+            navigator.setEmailService(emailService);
+            SnipeResult result = navigator.snipe(sites, releaseAt.toInstant(), refreshIntervalMs, Duration.ofSeconds(windowSeconds));
+            if (result == null) {
+                return;
+            }
+            record(result);
+            logger.info("Snipe for {} at {}: booked={}, release-to-click={} ms, refreshes={}", navigatorName,
+                    releaseAt, result.booked() != null, result.releaseToClickMs(), result.refreshes());
+
+            if (result.booked() != null) {
+                outboxRelay.publish(List.of(result.booked()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Snipe failed for {}: {}", navigatorName, e.getMessage(), e);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private synchronized void record(SnipeResult result) {
+        results.addLast(result);
+        while (results.size() > MAX_RESULTS) {
+            results.removeFirst();
+        }
+    }
+}
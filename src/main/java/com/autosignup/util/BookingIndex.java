@@ -0,0 +1,124 @@
+package com.autosignup.util;
+
+import com.autosignup.model.AppointmentType;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of the booked appointments, answering the protocol checks without JDBC. Per type it keeps
+ * bookings ordered by start, plus the longest booking seen, so an overlap query only has to look at bookings
+ * starting in {@code [slotStart - longest, slotEnd]}; and a count of bookings per week, keyed by the Sunday
+ * the week starts on.
+ */
+public class BookingIndex {
+
+    public record Booking(LocalDateTime start, LocalDateTime end) {
+    }
+
+    private final Map<AppointmentType, TreeMap<LocalDateTime, List<Booking>>> byStart = new EnumMap<>(AppointmentType.class);
+    private final Map<AppointmentType, TreeMap<LocalDate, Integer>> weekCounts = new EnumMap<>(AppointmentType.class);
+    private final Map<AppointmentType, Duration> longest = new EnumMap<>(AppointmentType.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static LocalDate weekOf(LocalDateTime time) {
+        return time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+    }
+
+    public void add(AppointmentType type, LocalDateTime start, LocalDateTime end) {
+        lock.writeLock().lock();
+        try {
+            byStart.computeIfAbsent(type, t -> new TreeMap<>())
+                    .computeIfAbsent(start, s -> new ArrayList<>())
+                    .add(new Booking(start, end));
+            weekCounts.computeIfAbsent(type, t -> new TreeMap<>()).merge(weekOf(start), 1, Integer::sum);
+            Duration duration = end.isAfter(start) ? Duration.between(start, end) : Duration.ZERO;
+            longest.merge(type, duration, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bookings of {@code type} starting in the {@code weeks} weeks beginning on Sunday {@code firstWeek}.
+     */
+    public int countInWeeks(AppointmentType type, LocalDate firstWeek, int weeks) {
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, Integer> counts = weekCounts.get(type);
+            if (counts == null) {
+                return 0;
+            }
+            return counts.subMap(firstWeek, true, firstWeek.plusWeeks(weeks), false).values().stream()
+                    .mapToInt(Integer::intValue).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bookings of {@code type} starting in {@code [from, to]}.
+     */
+    public int countStartingBetween(AppointmentType type, LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDateTime, List<Booking>> bookings = byStart.get(type);
+            if (bookings == null) {
+                return 0;
+            }
+            return bookings.subMap(from, true, to, true).values().stream().mapToInt(List::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * True if a booking of {@code type} overlaps {@code [start, end)}, using the same rules as the SQL check:
+     * it straddles the slot, starts inside it, or ends inside it.
+     */
+    public boolean overlaps(AppointmentType type, LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDateTime, List<Booking>> bookings = byStart.get(type);
+            if (bookings == null) {
+                return false;
+            }
+            LocalDateTime from = start.minus(longest.getOrDefault(type, Duration.ZERO));
+            for (List<Booking> sameStart : bookings.subMap(from, true, end, true).values()) {
+                for (Booking booking : sameStart) {
+                    if (overlaps(booking, start, end)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byStart.values().stream().flatMap(m -> m.values().stream()).mapToInt(List::size).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean overlaps(Booking booking, LocalDateTime start, LocalDateTime end) {
+        return (booking.start().isBefore(end) && booking.end().isAfter(start))
+                || (!booking.start().isBefore(start) && booking.start().isBefore(end))
+                || (booking.end().isAfter(start) && !booking.end().isAfter(end));
+    }
+}
@@ -0,0 +1,121 @@
+package com.autosignup.util;
+
+import com.autosignup.model.SlotInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Ranks bookable slots. A slot's score is a weighted sum of four terms in [0, 1]: the priority of its site,
+ * the position of the first slot config it matches, how soon it starts, and how rarely a slot at that
+ * hour of the week has been seen available on that site. Scarcity is learned from scans, so it starts neutral
+ * after a restart.
+ */
+@Component
+public class CandidateScorer {
+    private static final double UNKNOWN_SCARCITY = 0.5;
+
+    @Value("${scoring.weight.site-priority:4.0}")
+    private double sitePriorityWeight = 4.0;
+
+    @Value("${scoring.weight.preference:2.0}")
+    private double preferenceWeight = 2.0;
+
+    @Value("${scoring.weight.soonness:1.0}")
+    private double soonnessWeight = 1.0;
+
+    @Value("${scoring.weight.scarcity:1.0}")
+    private double scarcityWeight = 1.0;
+
+    // Per site: how many scans saw an available slot in each hour of the week, plus total scans in slot 168
+    private final Map<String, int[]> sightings = new ConcurrentHashMap<>();
+
+    /**
+     * @param sitePriority 1 for the most preferred site, 0 if the site has no configured priority
+     * @param preference   index of the first matching slot config, -1 if none
+     */
+    public double score(SlotInfo slot, int sitePriority, int preference, int preferenceCount, LocalDateTime now) {
+        double site = sitePriority > 0 ? 1.0 / sitePriority : 0;
+        double preferred = preference >= 0 && preferenceCount > 0 ? 1.0 - (double) preference / preferenceCount : 0;
+        double hoursAway = Math.max(0, Duration.between(now, slot.start()).toMinutes() / 60.0);
+        double soon = 1.0 / (1.0 + hoursAway / 24.0);
+        return sitePriorityWeight * site + preferenceWeight * preferred + soonnessWeight * soon
+                + scarcityWeight * scarcity(slot.sourceUrl(), slot.start());
+    }
+
+    /**
+     * Learns from one scan of {@code siteUrl}: every hour of the week with an available slot counts as seen once.
+     */
+    public void observe(String siteUrl, List<SlotInfo> slots) {
+        int[] counts = sightings.computeIfAbsent(siteUrl, url -> new int[ReleaseHistory.BUCKETS + 1]);
+        boolean[] seen = new boolean[ReleaseHistory.BUCKETS];
+        for (SlotInfo slot : slots) {
+            if (slot.available()) {
+                seen[bucketOf(slot.start())] = true;
+            }
+        }
+        synchronized (counts) {
+            for (int bucket = 0; bucket < seen.length; bucket++) {
+                if (seen[bucket]) {
+                    counts[bucket]++;
+                }
+            }
+            counts[ReleaseHistory.BUCKETS]++;
+        }
+    }
+
+    /**
+     * 1 when no scan of the site has shown a slot at this hour of the week, 0 when every scan has.
+     */
+    public double scarcity(String siteUrl, LocalDateTime start) {
+        int[] counts = siteUrl == null ? null : sightings.get(siteUrl);
+        if (counts == null) {
+            return UNKNOWN_SCARCITY;
+        }
+        synchronized (counts) {
+            int scans = counts[ReleaseHistory.BUCKETS];
+            return scans == 0 ? UNKNOWN_SCARCITY : 1.0 - (double) counts[bucketOf(start)] / scans;
+        }
+    }
+
+    /**
+     * The {@code k} highest-scoring items, best first, found with a bounded min-heap in O(n log k).
+     * Ties keep input order.
+     */
+    public static <T> List<T> topK(List<T> items, ToDoubleFunction<T> score, int k) {
+        if (k <= 0 || items.isEmpty()) {
+            return List.of();
+        }
+        record Scored<T>(T item, double score, int index) {
+        }
+        Comparator<Scored<T>> worstFirst = Comparator.<Scored<T>>comparingDouble(Scored::score)
+                .thenComparing(Comparator.<Scored<T>>comparingInt(Scored::index).reversed());
+        PriorityQueue<Scored<T>> heap = new PriorityQueue<>(Math.min(k, items.size()) + 1, worstFirst);
+        for (int i = 0; i < items.size(); i++) {
+            heap.add(new Scored<>(items.get(i), score.applyAsDouble(items.get(i)), i));
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        List<T> best = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            best.add(heap.poll().item());
+        }
+        Collections.reverse(best);
+        return best;
+    }
+
+    private static int bucketOf(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+}
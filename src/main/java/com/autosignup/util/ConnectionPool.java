@@ -0,0 +1,155 @@
+package com.autosignup.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed set of JDBC connections handed out one caller at a time, each with its own LRU cache of prepared
+ * statements. Cached statements stay open for the life of the connection, so callers must close the result sets
+ * they open but never the statements.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    @FunctionalInterface
+    public interface SqlFunction<T, R> {
+        R apply(T value) throws SQLException;
+    }
+
+    public record PoolStats(int size, long leases, long waits, long statementHits, long statementMisses,
+                            int openStatements) {
+        @Override
+        public String toString() {
+            return String.format("connections=%d, leases=%d, waits=%d, statement cache hits=%d misses=%d, open statements=%d",
+                    size, leases, waits, statementHits, statementMisses, openStatements);
+        }
+    }
+
+    public final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements;
+
+        PooledConnection(Connection connection, int statementCacheSize) {
+            this.connection = connection;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= statementCacheSize) {
+                        return false;
+                    }
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        public Connection connection() {
+            return connection;
+        }
+
+        /**
+         * The cached statement for {@code sql} with its parameters cleared, preparing it on first use.
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt != null && !stmt.isClosed()) {
+                statementHits.incrementAndGet();
+                stmt.clearParameters();
+                return stmt;
+            }
+            statementMisses.incrementAndGet();
+            stmt = connection.prepareStatement(sql);
+            statements.put(sql, stmt);
+            return stmt;
+        }
+
+        void close() {
+            statements.values().forEach(ConnectionPool::closeQuietly);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.warn("Error closing pooled connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private final BlockingQueue<PooledConnection> idle;
+    private final List<PooledConnection> all = new ArrayList<>();
+    private final long leaseTimeoutMs;
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    public ConnectionPool(List<Connection> connections, int statementCacheSize, long leaseTimeoutMs) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, connections.size()));
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        for (Connection connection : connections) {
+            PooledConnection pooled = new PooledConnection(connection, statementCacheSize);
+            all.add(pooled);
+            idle.add(pooled);
+        }
+    }
+
+    /**
+     * Runs {@code work} on an idle connection, waiting up to the lease timeout for one to come free.
+     */
+    public <T> T withConnection(SqlFunction<PooledConnection, T> work) throws SQLException {
+        PooledConnection pooled = idle.poll();
+        if (pooled == null) {
+            waits.incrementAndGet();
+            try {
+                pooled = idle.poll(leaseTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a database connection", e);
+            }
+            if (pooled == null) {
+                throw new SQLException("Timed out after " + leaseTimeoutMs + " ms waiting for a database connection");
+            }
+        }
+        leases.incrementAndGet();
+        try {
+            return work.apply(pooled);
+        } finally {
+            idle.add(pooled);
+        }
+    }
+
+    public PoolStats snapshot() {
+        // Sizes are read without leasing the connections, so this is a best-effort count
+        int open = 0;
+        for (PooledConnection pooled : all) {
+            open += pooled.statements.size();
+        }
+        return new PoolStats(all.size(), leases.get(), waits.get(), statementHits.get(), statementMisses.get(), open);
+    }
+
+    @Override
+    public void close() {
+        all.forEach(PooledConnection::close);
+        all.clear();
+        idle.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cached statement: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.autosignup.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Browserless slot discovery. Polls slot JSON endpoints over one shared {@link HttpClient}, so keep-alive
+ * connections and session cookies are reused between sweeps, at a fraction of the cost of a page load.
+ */
+public class HttpSlotPoller {
+    private static final Logger logger = LoggerFactory.getLogger(HttpSlotPoller.class);
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    public HttpSlotPoller(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager(null, CookiePolicy.ACCEPT_ALL))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    public String fetch(String url) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("User-Agent", USER_AGENT)
+                .GET()
+                .build();
+        long start = System.currentTimeMillis();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Unexpected HTTP " + response.statusCode() + " from " + url);
+            }
+            logger.debug("Polled {} in {} ms ({} chars)", url, System.currentTimeMillis() - start, response.body().length());
+            return response.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while polling " + url, e);
+        }
+    }
+}
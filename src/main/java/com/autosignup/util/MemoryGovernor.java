@@ -0,0 +1,186 @@
+package com.autosignup.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples Chromium memory over CDP after each navigation and decides when a lane's browser context should be
+ * recycled. Recycling itself is left to the lane, which only does it between sweeps. Recycle counts and
+ * high-water marks are shared by all lanes so the container can be sized from them.
+ */
+@Component
+public class MemoryGovernor {
+    private static final Logger logger = LoggerFactory.getLogger(MemoryGovernor.class);
+    private static final long MB = 1024 * 1024;
+
+    @Value("${playwright.memory.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${playwright.memory.max-heap-mb:256}")
+    private long maxHeapMb = 256;
+
+    @Value("${playwright.memory.max-dom-nodes:150000}")
+    private long maxDomNodes = 150_000;
+
+    @Value("${playwright.memory.max-renderer-rss-mb:768}")
+    private long maxRendererRssMb = 768;
+
+    @Value("${playwright.memory.max-navigations:50}")
+    private int maxNavigations = 50;
+
+    private final AtomicLong recycles = new AtomicLong();
+    private final AtomicLong heapHighWater = new AtomicLong();
+    private final AtomicLong domNodesHighWater = new AtomicLong();
+    private final AtomicLong rendererRssHighWater = new AtomicLong();
+
+    /**
+     * One reading from a page. Values are -1 when the metric could not be read.
+     */
+    public record MemorySample(long heapUsedBytes, long domNodes, long rendererRssBytes) {
+        @Override
+        public String toString() {
+            return String.format("heap=%d MB, nodes=%d, rss=%d MB",
+                    heapUsedBytes < 0 ? -1 : heapUsedBytes / MB, domNodes,
+                    rendererRssBytes < 0 ? -1 : rendererRssBytes / MB);
+        }
+    }
+
+    public record MemoryStats(long recycles, long heapHighWaterBytes, long domNodesHighWater, long rendererRssHighWaterBytes) {
+        @Override
+        public String toString() {
+            return String.format("recycles=%d, peak heap=%d MB, peak nodes=%d, peak renderer rss=%d MB",
+                    recycles, heapHighWaterBytes / MB, domNodesHighWater, rendererRssHighWaterBytes / MB);
+        }
+    }
+
+    /**
+     * Samples the page and returns why its context should be recycled, or null if it can stay.
+     */
+    public String check(Browser browser, Page page, int navigationsInContext) {
+        if (!enabled) {
+            return null;
+        }
+        MemorySample sample = sample(browser, page);
+        logger.debug("Memory after navigation {}: {}", navigationsInContext, sample);
+        return evaluate(sample, navigationsInContext);
+    }
+
+    public String evaluate(MemorySample sample, int navigationsInContext) {
+        heapHighWater.accumulateAndGet(sample.heapUsedBytes(), Math::max);
+        domNodesHighWater.accumulateAndGet(sample.domNodes(), Math::max);
+        rendererRssHighWater.accumulateAndGet(sample.rendererRssBytes(), Math::max);
+
+        if (maxNavigations > 0 && navigationsInContext >= maxNavigations) {
+            return navigationsInContext + " navigations in this context";
+        }
+        if (sample.heapUsedBytes() > maxHeapMb * MB) {
+            return "JS heap " + sample.heapUsedBytes() / MB + " MB over " + maxHeapMb + " MB";
+        }
+        if (sample.domNodes() > maxDomNodes) {
+            return sample.domNodes() + " DOM nodes over " + maxDomNodes;
+        }
+        if (sample.rendererRssBytes() > maxRendererRssMb * MB) {
+            return "renderer RSS " + sample.rendererRssBytes() / MB + " MB over " + maxRendererRssMb + " MB";
+        }
+        return null;
+    }
+
+    public void recordRecycle(String reason) {
+        long count = recycles.incrementAndGet();
+        logger.info("Recycled browser context ({}), {} recycle(s) so far", reason, count);
+    }
+
+    public MemoryStats snapshot() {
+        return new MemoryStats(recycles.get(), heapHighWater.get(), domNodesHighWater.get(), rendererRssHighWater.get());
+    }
+
+    private MemorySample sample(Browser browser, Page page) {
+        long heap = -1;
+        long nodes = -1;
+        CDPSession session = null;
+        try {
+            session = page.context().newCDPSession(page);
+            session.send("Performance.enable");
+            JsonObject metrics = session.send("Performance.getMetrics");
+            for (JsonElement element : metrics.getAsJsonArray("metrics")) {
+                JsonObject metric = element.getAsJsonObject();
+                switch (metric.get("name").getAsString()) {
+                    case "JSHeapUsedSize" -> heap = metric.get("value").getAsLong();
+                    case "Nodes" -> nodes = metric.get("value").getAsLong();
+                    default -> { }
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Could not read page metrics: {}", e.getMessage());
+        } finally {
+            detach(session);
+        }
+        return new MemorySample(heap, nodes, rendererRss(browser));
+    }
+
+    /**
+     * Sums VmRSS of the browser's renderer processes. Only works where /proc is readable, i.e. on Linux.
+     */
+    private long rendererRss(Browser browser) {
+        CDPSession session = null;
+        try {
+            session = browser.newBrowserCDPSession();
+            JsonObject info = session.send("SystemInfo.getProcessInfo");
+            long total = 0;
+            boolean found = false;
+            for (JsonElement element : info.getAsJsonArray("processInfo")) {
+                JsonObject process = element.getAsJsonObject();
+                if (!"renderer".equals(process.get("type").getAsString())) {
+                    continue;
+                }
+                long rss = readVmRss(Path.of("/proc", process.get("id").getAsString(), "status"));
+                if (rss >= 0) {
+                    total += rss;
+                    found = true;
+                }
+            }
+            return found ? total : -1;
+        } catch (Exception e) {
+            logger.debug("Could not read renderer process info: {}", e.getMessage());
+            return -1;
+        } finally {
+            detach(session);
+        }
+    }
+
+    static long readVmRss(Path status) {
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    String kb = line.substring("VmRSS:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kb) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.debug("Could not read {}: {}", status, e.getMessage());
+        }
+        return -1;
+    }
+
+    private static void detach(CDPSession session) {
+        if (session == null) {
+            return;
+        }
+        try {
+            session.detach();
+        } catch (Exception ignored) {
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.autosignup.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binds the parameters of a prepared statement.
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+    ParameterBinder NONE = stmt -> { };
+
+    void bind(PreparedStatement stmt) throws SQLException;
+
+    /**
+     * Binds {@code values} in order by their Java type. Enums bind as their name and {@link LocalDateTime} as
+     * epoch seconds, the format of the {@code *_epoch} columns.
+     */
+    static ParameterBinder of(Object... values) {
+        return stmt -> {
+            for (int i = 0; i < values.length; i++) {
+                bind(stmt, i + 1, values[i]);
+            }
+        };
+    }
+
+    private static void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, Types.NULL);
+        } else if (value instanceof String text) {
+            stmt.setString(index, text);
+        } else if (value instanceof Integer number) {
+            stmt.setInt(index, number);
+        } else if (value instanceof Long number) {
+            stmt.setLong(index, number);
+        } else if (value instanceof Double number) {
+            stmt.setDouble(index, number);
+        } else if (value instanceof Boolean flag) {
+            stmt.setInt(index, flag ? 1 : 0);
+        } else if (value instanceof Enum<?> constant) {
+            stmt.setString(index, constant.name());
+        } else if (value instanceof LocalDateTime time) {
+            stmt.setLong(index, time.toEpochSecond(ZoneOffset.UTC));
+        } else {
+            throw new IllegalArgumentException("Unsupported parameter type " + value.getClass().getName() + " at index " + index);
+        }
+    }
+}
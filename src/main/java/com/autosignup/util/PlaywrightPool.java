@@ -0,0 +1,124 @@
+package com.autosignup.util;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Bounded pool of {@link PlaywrightWrapper} lanes. Playwright Java objects must only be driven by one
+ * thread at a time, so each lane owns its own browser, context and page and is handed out exclusively
+ * through {@link #lease(long)} / {@link #release(PlaywrightWrapper)}. The primary wrapper is the first
+ * lane; further lanes are launched lazily up to the configured size.
+ */
+@Component
+public class PlaywrightPool {
+    private static final Logger logger = LoggerFactory.getLogger(PlaywrightPool.class);
+
+    @Getter
+    private final PlaywrightWrapper primary;
+    @Getter
+    private final int size;
+    private final Deque<PlaywrightWrapper> idle = new ArrayDeque<>();
+    private final List<PlaywrightWrapper> lanes = new ArrayList<>();
+    private boolean closed;
+
+    public PlaywrightPool(PlaywrightWrapper primary, @Value("${playwright.pool.size:3}") int size) {
+        this.primary = primary;
+        this.size = Math.max(1, size);
+        lanes.add(primary);
+        idle.add(primary);
+        logger.info("Playwright pool created with capacity {}", this.size);
+    }
+
+    public PlaywrightWrapper lease(long timeoutMs) throws InterruptedException {
+        return lease(lane -> true, timeoutMs);
+    }
+
+    /**
+     * Leases an idle lane matching {@code preferred} if there is one, otherwise any lane.
+     */
+    public PlaywrightWrapper lease(Predicate<PlaywrightWrapper> preferred, long timeoutMs) throws InterruptedException {
+        synchronized (this) {
+            for (PlaywrightWrapper lane : idle) {
+                if (preferred.test(lane)) {
+                    idle.remove(lane);
+                    return lane;
+                }
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        synchronized (this) {
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("Playwright pool is closed");
+                }
+                if (!idle.isEmpty()) {
+                    return idle.poll();
+                }
+                if (lanes.size() < size) {
+                    break;
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    throw new IllegalStateException("Timed out after " + timeoutMs + "ms waiting for a browser page");
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            }
+            // Reserve the lane before launching outside the lock so other leases are not blocked
+            lanes.add(null);
+        }
+        try {
+            PlaywrightWrapper lane = primary.newSibling();
+            synchronized (this) {
+                lanes.set(lanes.indexOf(null), lane);
+            }
+            logger.info("Launched browser lane {}/{}", lanes.size(), size);
+            return lane;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                lanes.remove(null);
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    public synchronized void release(PlaywrightWrapper wrapper) {
+        if (wrapper == null) {
+            return;
+        }
+        if (closed) {
+            wrapper.close();
+            return;
+        }
+        idle.push(wrapper);
+        notifyAll();
+    }
+
+    @PreDestroy
+    public void close() {
+        List<PlaywrightWrapper> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(lanes);
+            idle.clear();
+            notifyAll();
+        }
+        for (PlaywrightWrapper lane : toClose) {
+            if (lane != null) {
+                lane.close();
+            }
+        }
+        logger.info("Playwright pool closed ({} lane(s))", toClose.size());
+    }
+}
@@ -2,14 +2,19 @@ package com.autosignup.util;
 
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.WaitUntilState;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 @Component
 public class PlaywrightWrapper {
@@ -18,11 +23,38 @@ public class PlaywrightWrapper {
     private Playwright playwright;
     private Browser browser;
     private BrowserContext context;
-    @Getter
     private Page page;
+    private String loadedUrl;
+    private long loadedAtMs;
+    private int navigationsInContext;
+    // Set by the memory governor after a navigation; acted on by recycleIfPending() between sweeps
+    private volatile String recycleReason;
+    @Getter
+    private final WaitEngine waitEngine;
+    @Getter
+    private final RequestFilter requestFilter;
+    @Getter
+    private final MemoryGovernor memoryGovernor;
 
     public PlaywrightWrapper() {
-        initializeBrowser();
+        this(new WaitEngine(), new RequestFilter(), new MemoryGovernor());
+    }
+
+    @Autowired
+    public PlaywrightWrapper(WaitEngine waitEngine, RequestFilter requestFilter, MemoryGovernor memoryGovernor) {
+        this.waitEngine = waitEngine;
+        this.requestFilter = requestFilter;
+        this.memoryGovernor = memoryGovernor;
+    }
+
+    /**
+     * Returns the lane's page, launching Chromium on first use so that browserless sweeps never start it.
+     */
+    public Page getPage() {
+        if (page == null) {
+            initializeBrowser();
+        }
+        return page;
     }
     
     private void initializeBrowser() {
@@ -30,14 +62,9 @@ public class PlaywrightWrapper {
             playwright = Playwright.create();
             browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
                 .setHeadless(true)
-                .setSlowMo(1000));
-            
-            context = browser.newContext(new Browser.NewContextOptions()
-                .setViewportSize(1920, 1080)
-                .setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36"));
+                .setSlowMo(waitEngine.isFastMode() ? 0 : 1000));
             
-            page = context.newPage();
-            page.setDefaultTimeout(30000);
+            openContext();
             
             logger.info("Browser initialized successfully");
         } catch (Exception e) {
@@ -46,15 +73,42 @@ public class PlaywrightWrapper {
         }
     }
 
+    private void openContext() {
+        context = browser.newContext(new Browser.NewContextOptions()
+            .setViewportSize(1920, 1080)
+            .setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36"));
+        requestFilter.install(context);
+        
+        page = context.newPage();
+        page.setDefaultTimeout(30000);
+        navigationsInContext = 0;
+        recycleReason = null;
+    }
+
+    /**
+     * Launches an independent browser lane with the same settings, used by {@link PlaywrightPool}.
+     */
+    public PlaywrightWrapper newSibling() {
+        return new PlaywrightWrapper(waitEngine, requestFilter, memoryGovernor);
+    }
+
     public void navigateTo(String url, int maxRetries) {
         for (int attempt = 1; attempt <= maxRetries; attempt++) {
             try {
                 logger.info("Navigating to {} (attempt {})", url, attempt);
-                page.navigate(url);
-                page.waitForLoadState(LoadState.DOMCONTENTLOADED);
+                getPage().navigate(url);
+                getPage().waitForLoadState(LoadState.DOMCONTENTLOADED);
+                if (waitEngine.isFastMode()) {
+                    waitEngine.networkIdle(getPage());
+                    waitEngine.angularSettled(getPage());
+                }
+                loadedUrl = url;
+                loadedAtMs = System.currentTimeMillis();
+                checkMemory();
                 return;
             } catch (Exception e) {
                 logger.warn("Navigation attempt {} failed: {}", attempt, e.getMessage());
+                markStale();
                 
                 if (e.getMessage().contains("collected") || e.getMessage().contains("heap growth")) {
                     logger.warn("Detected memory issue, recreating browser context");
@@ -73,7 +127,114 @@ public class PlaywrightWrapper {
         }
     }
 
+    /**
+     * Reloads {@code url} for a tight refresh loop: waits only for DOMContentLoaded, skipping the network-idle and
+     * Angular settle waits of {@link #navigateTo(String, int)}. Navigates there first if the page shows something else.
+     */
+    public void reload(String url) {
+        if (page != null && !page.isClosed() && url.equals(loadedUrl)) {
+            page.reload(new Page.ReloadOptions().setWaitUntil(WaitUntilState.DOMCONTENTLOADED));
+        } else {
+            getPage().navigate(url, new Page.NavigateOptions().setWaitUntil(WaitUntilState.DOMCONTENTLOADED));
+        }
+        loadedUrl = url;
+        loadedAtMs = System.currentTimeMillis();
+    }
+
+    /**
+     * Navigates to {@code url} while listening for responses whose URL matches one of {@code patterns}, and
+     * returns their bodies. Waits for network idle when nothing matched by the time the DOM is ready.
+     */
+    public List<String> navigateAndCapture(String url, List<Pattern> patterns, int maxRetries) {
+        List<Response> matched = new ArrayList<>();
+        Consumer<Response> listener = response -> {
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(response.url()).find()) {
+                    matched.add(response);
+                    return;
+                }
+            }
+        };
+
+        getPage().onResponse(listener);
+        try {
+            navigateTo(url, maxRetries);
+            if (matched.isEmpty()) {
+                waitEngine.networkIdle(getPage());
+            }
+        } finally {
+            getPage().offResponse(listener);
+        }
+
+        List<String> bodies = new ArrayList<>();
+        for (Response response : matched) {
+            try {
+                if (response.ok()) {
+                    bodies.add(response.text());
+                }
+            } catch (Exception e) {
+                logger.debug("Could not read captured response {}: {}", response.url(), e.getMessage());
+            }
+        }
+        logger.info("Captured {} matching response(s) while loading {}", bodies.size(), url);
+        return bodies;
+    }
+
+    private void checkMemory() {
+        navigationsInContext++;
+        if (recycleReason != null) {
+            return;
+        }
+        String reason = memoryGovernor.check(browser, page, navigationsInContext);
+        if (reason != null) {
+            logger.info("Browser context due for recycling: {}", reason);
+            recycleReason = reason;
+        }
+    }
+
+    /**
+     * Recycles the browser context if the memory governor asked for it. Only call this between sweeps, on a
+     * leased lane, so a signup never loses its page.
+     */
+    public void recycleIfPending() {
+        String reason = recycleReason;
+        if (reason == null || browser == null) {
+            return;
+        }
+        recreateBrowserContext();
+        memoryGovernor.recordRecycle(reason);
+    }
+
+    /**
+     * True when this lane's page still shows {@code url}, loaded no more than {@code maxAgeMs} ago and not
+     * interacted with since.
+     */
+    public boolean isShowing(String url, long maxAgeMs) {
+        return page != null && !page.isClosed() && url != null && url.equals(loadedUrl)
+                && System.currentTimeMillis() - loadedAtMs <= maxAgeMs;
+    }
+
+    /**
+     * Forgets what the page was showing, e.g. after a signup changed its state.
+     */
+    public void markStale() {
+        loadedUrl = null;
+    }
+
     public List<ElementHandle> findSlots(Map<String, String> selectors) {
+        if (!awaitSlots(selectors)) {
+            return List.of();
+        }
+        List<ElementHandle> slots = getPage().querySelectorAll(selectors.get("slot_container"));
+        logger.info("Found {} potential slots", slots.size());
+        return slots;
+    }
+
+    /**
+     * Prepares the schedule page (ticks "Hide Full Spots") and waits for the slot container to render.
+     * Returns false, after taking a screenshot, when no slot container shows up.
+     */
+    public boolean awaitSlots(Map<String, String> selectors) {
         try {
             logger.info("Looking for appointment slots");
             
@@ -83,10 +244,10 @@ public class PlaywrightWrapper {
             
             try {
                 logger.debug("Looking for 'Hide Full Spots' checkbox");
-                Object isChecked = page.evaluate("() => { const checkbox = document.querySelector('input[ng-model=\"$ctrl.hideFullSpotsLocal\"]'); if (checkbox && !checkbox.checked) { checkbox.click(); return true; } return false; }");
+                Object isChecked = getPage().evaluate("() => { const checkbox = document.querySelector('input[ng-model=\"$ctrl.hideFullSpotsLocal\"]'); if (checkbox && !checkbox.checked) { checkbox.click(); return true; } return false; }");
                 if (Boolean.TRUE.equals(isChecked)) {
                     logger.info("Clicked 'Hide Full Spots' checkbox to show only available slots");
-                    page.waitForTimeout(2000);
+                    settle(2000);
                 } else {
                     logger.debug("'Hide Full Spots' checkbox already checked or not found");
                 }
@@ -94,35 +255,32 @@ public class PlaywrightWrapper {
                 logger.debug("Could not click 'Hide Full Spots' checkbox: {}", e.getMessage());
             }
             
-            page.waitForSelector(selectors.get("slot_container"), new Page.WaitForSelectorOptions().setTimeout(15000));
-            List<ElementHandle> slots = page.querySelectorAll(selectors.get("slot_container"));
-            logger.info("Found {} potential slots", slots.size());
-            
-            return slots;
-            
+            if (waitEngine.selectorVisible(getPage(), selectors.get("slot_container"))) {
+                return true;
+            }
+            logger.error("Failed to find slots: {} not visible", selectors.get("slot_container"));
         } catch (Exception e) {
             logger.error("Failed to find slots: {}", e.getMessage());
+        }
+
+        logger.warn("Initial slot search failed, attempting to click 'Hide Full Spots' and retry");
+        try {
+            getPage().evaluate("() => { const checkbox = document.querySelector('input[ng-model=\"$ctrl.hideFullSpotsLocal\"]'); if (checkbox && !checkbox.checked) { checkbox.click(); } }");
+            logger.info("Clicked 'Hide Full Spots' checkbox on retry");
+            settle(3000);
             
-            logger.warn("Initial slot search failed, attempting to click 'Hide Full Spots' and retry");
-            try {
-                page.evaluate("() => { const checkbox = document.querySelector('input[ng-model=\"$ctrl.hideFullSpotsLocal\"]'); if (checkbox && !checkbox.checked) { checkbox.click(); } }");
-                logger.info("Clicked 'Hide Full Spots' checkbox on retry");
-                page.waitForTimeout(3000);
-                
-                List<ElementHandle> slots = page.querySelectorAll(selectors.get("slot_container"));
-                if (!slots.isEmpty()) {
-                    logger.info("Retry successful! Found {} potential slots after expanding dropdowns", slots.size());
-                    return slots;
-                } else {
-                    logger.warn("No slots found even after expanding dropdowns");
-                }
-            } catch (Exception retryEx) {
-                logger.error("Retry also failed: {}", retryEx.getMessage());
+            if (getPage().querySelector(selectors.get("slot_container")) != null) {
+                logger.info("Retry successful! Slots rendered after expanding dropdowns");
+                return true;
+            } else {
+                logger.warn("No slots found even after expanding dropdowns");
             }
-            
-            takeScreenshot("find_slots_failed");
-            return List.of();
+        } catch (Exception retryEx) {
+            logger.error("Retry also failed: {}", retryEx.getMessage());
         }
+        
+        takeScreenshot("find_slots_failed");
+        return false;
     }
 
     public String getElementText(ElementHandle element) {
@@ -135,15 +293,25 @@ public class PlaywrightWrapper {
     }
 
     public void takeScreenshot(String name) {
+        if (page == null) {
+            return;
+        }
         try {
             String filename = String.format("screenshot_%s_%d.png", name, System.currentTimeMillis());
-            page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get(filename)));
+            getPage().screenshot(new Page.ScreenshotOptions().setPath(Paths.get(filename)));
             logger.info("Screenshot saved: {}", filename);
         } catch (Exception e) {
             logger.error("Failed to take screenshot: {}", e.getMessage());
         }
     }
 
+    /**
+     * Waits for the page to settle after an interaction; {@code legacyDelayMs} is only used when fast mode is off.
+     */
+    public void settle(int legacyDelayMs) {
+        waitEngine.settle(getPage(), legacyDelayMs);
+    }
+
     private void sleepWithBackoff(int attempt) {
         try {
             long delay = (long) Math.pow(2, attempt) * 1000;
@@ -154,6 +322,9 @@ public class PlaywrightWrapper {
     }
 
     public void recreateBrowserContext() {
+        if (browser == null) {
+            return;
+        }
         try {
             logger.info("Recreating browser context to prevent memory leaks");
             
@@ -164,12 +335,8 @@ public class PlaywrightWrapper {
                 context.close();
             }
             
-            context = browser.newContext(new Browser.NewContextOptions()
-                .setViewportSize(1920, 1080)
-                .setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36"));
-            
-            page = context.newPage();
-            page.setDefaultTimeout(30000);
+            openContext();
+            markStale();
             
             logger.info("Browser context recreated successfully");
         } catch (Exception e) {
@@ -184,7 +351,7 @@ public class PlaywrightWrapper {
         try {
             logger.debug("Clicking element");
             element.click();
-            page.waitForTimeout(1000);
+            settle(1000);
             logger.debug("Element clicked successfully");
         } catch (Exception e) {
             logger.error("Failed to click element: {}", e.getMessage());
@@ -195,8 +362,10 @@ public class PlaywrightWrapper {
     public void fillFormField(String selector, String value) {
         try {
             logger.debug("Filling form field: {} with value: {}", selector, value);
-            page.waitForSelector(selector, new Page.WaitForSelectorOptions().setTimeout(10000));
-            page.fill(selector, value);
+            if (!waitEngine.selectorVisible(getPage(), selector)) {
+                throw new IllegalStateException(selector + " did not become visible");
+            }
+            getPage().fill(selector, value);
             logger.debug("Form field filled successfully");
         } catch (Exception e) {
             logger.error("Failed to fill form field {}: {}", selector, e.getMessage());
@@ -207,19 +376,21 @@ public class PlaywrightWrapper {
     public boolean waitForModal(String selector, int timeoutMs) {
         try {
             logger.debug("Waiting for modal/element: {}", selector);
-            page.waitForSelector(selector, new Page.WaitForSelectorOptions().setTimeout(timeoutMs));
-            logger.debug("Modal/element appeared: {}", selector);
-            return true;
+            if (waitEngine.selectorVisible(getPage(), selector, timeoutMs)) {
+                logger.debug("Modal/element appeared: {}", selector);
+                return true;
+            }
         } catch (Exception e) {
-            logger.warn("Modal/element did not appear within {}ms: {}", timeoutMs, selector);
-            return false;
+            logger.debug("Error waiting for modal/element {}: {}", selector, e.getMessage());
         }
+        logger.warn("Modal/element did not appear within {}ms: {}", timeoutMs, selector);
+        return false;
     }
 
     public boolean isElementVisible(String selector) {
         try {
             logger.debug("Checking visibility of element: {}", selector);
-            ElementHandle element = page.querySelector(selector);
+            ElementHandle element = getPage().querySelector(selector);
             if (element == null) {
                 logger.debug("Element not found: {}", selector);
                 return false;
@@ -236,9 +407,11 @@ public class PlaywrightWrapper {
     public void clickSelector(String selector) {
         try {
             logger.debug("Clicking selector: {}", selector);
-            page.waitForSelector(selector, new Page.WaitForSelectorOptions().setTimeout(10000));
-            page.click(selector);
-            page.waitForTimeout(1000);
+            if (!waitEngine.selectorVisible(getPage(), selector)) {
+                throw new IllegalStateException(selector + " did not become visible");
+            }
+            getPage().click(selector);
+            settle(1000);
             logger.debug("Selector clicked successfully: {}", selector);
         } catch (Exception e) {
             logger.error("Failed to click selector {}: {}", selector, e.getMessage());
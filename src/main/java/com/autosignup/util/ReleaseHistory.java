@@ -0,0 +1,43 @@
+package com.autosignup.util;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Per-site counts of how often a scan saw the slot list change, bucketed by hour of week. Counts are halved
+ * once a bucket has many observations so that old behaviour fades out.
+ */
+public class ReleaseHistory {
+    public static final int BUCKETS = 7 * 24;
+    private static final int MAX_OBSERVATIONS = 200;
+
+    private final int[] observations = new int[BUCKETS];
+    private final int[] changes = new int[BUCKETS];
+
+    public static int bucketOf(ZonedDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+
+    public synchronized void load(int bucket, int observationCount, int changeCount) {
+        observations[bucket] = observationCount;
+        changes[bucket] = changeCount;
+    }
+
+    public synchronized void observe(int bucket, boolean changed) {
+        observations[bucket]++;
+        if (changed) {
+            changes[bucket]++;
+        }
+        if (observations[bucket] > MAX_OBSERVATIONS) {
+            observations[bucket] /= 2;
+            changes[bucket] /= 2;
+        }
+    }
+
+    public synchronized int observations(int bucket) {
+        return observations[bucket];
+    }
+
+    public synchronized int changes(int bucket) {
+        return changes[bucket];
+    }
+}
@@ -0,0 +1,165 @@
+package com.autosignup.util;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routing layer installed on every browser context. Requests are denied by resource type, by host, or as
+ * third-party scripts, unless their host is explicitly allowed. Counters are shared by all lanes and are
+ * read once per sweep with {@link #snapshotAndReset()}.
+ * <p>
+ * Third-party script blocking is off by default because booking pages load their framework from CDNs. Every
+ * script blocked during the first sweep is logged at info so the allow-list can be tuned before turning it on.
+ */
+@Component
+public class RequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestFilter.class);
+
+    // Rough transfer sizes used to estimate what a blocked request would have cost
+    private static final Map<String, Long> ESTIMATED_BYTES_BY_TYPE = Map.of(
+            "image", 25_000L,
+            "media", 250_000L,
+            "font", 40_000L,
+            "script", 60_000L,
+            "stylesheet", 20_000L
+    );
+    private static final long ESTIMATED_BYTES_OTHER = 5_000L;
+
+    @Value("${playwright.block.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${playwright.block.resource-types:image,media,font}")
+    private List<String> deniedResourceTypes = List.of("image", "media", "font");
+
+    @Value("${playwright.block.hosts:google-analytics.com,googletagmanager.com,doubleclick.net,facebook.net,hotjar.com,segment.io}")
+    private List<String> deniedHosts = List.of("google-analytics.com", "googletagmanager.com", "doubleclick.net",
+            "facebook.net", "hotjar.com", "segment.io");
+
+    @Value("${playwright.block.allowed-hosts:}")
+    private List<String> allowedHosts = List.of();
+
+    @Value("${playwright.block.third-party-scripts:false}")
+    private boolean blockThirdPartyScripts = false;
+
+    // Cleared by the first snapshotAndReset(), i.e. at the end of the first sweep
+    private final AtomicBoolean firstSweep = new AtomicBoolean(true);
+
+    private final AtomicLong allowedRequests = new AtomicLong();
+    private final AtomicLong blockedRequests = new AtomicLong();
+    private final AtomicLong allowedBytes = new AtomicLong();
+    private final AtomicLong estimatedBytesSaved = new AtomicLong();
+
+    public record RequestStats(long allowedRequests, long blockedRequests, long allowedBytes, long estimatedBytesSaved) {
+        @Override
+        public String toString() {
+            return String.format("allowed=%d (%d KB), blocked=%d (~%d KB saved)",
+                    allowedRequests, allowedBytes / 1024, blockedRequests, estimatedBytesSaved / 1024);
+        }
+    }
+
+    public void install(BrowserContext context) {
+        if (!enabled) {
+            return;
+        }
+        context.route("**/*", this::handle);
+        context.onResponse(this::recordResponse);
+        logger.debug("Request filter installed: types={}, hosts={}, allowed={}, thirdPartyScripts={}",
+                deniedResourceTypes, deniedHosts, allowedHosts, blockThirdPartyScripts);
+    }
+
+    public RequestStats snapshotAndReset() {
+        firstSweep.set(false);
+        return new RequestStats(allowedRequests.getAndSet(0), blockedRequests.getAndSet(0),
+                allowedBytes.getAndSet(0), estimatedBytesSaved.getAndSet(0));
+    }
+
+    private void handle(Route route) {
+        Request request = route.request();
+        String reason = blockReason(request);
+        if (reason == null) {
+            allowedRequests.incrementAndGet();
+            route.resume();
+            return;
+        }
+        blockedRequests.incrementAndGet();
+        estimatedBytesSaved.addAndGet(ESTIMATED_BYTES_BY_TYPE.getOrDefault(request.resourceType(), ESTIMATED_BYTES_OTHER));
+        if (firstSweep.get() && "script".equals(request.resourceType())) {
+            logger.info("Blocked script ({}): {}", reason, request.url());
+        } else {
+            logger.trace("Blocked {} ({}): {}", request.resourceType(), reason, request.url());
+        }
+        route.abort("blockedbyclient");
+    }
+
+    private String blockReason(Request request) {
+        String host = hostOf(request.url());
+        if (host == null || matchesAny(host, allowedHosts)) {
+            return null;
+        }
+        if (deniedResourceTypes.contains(request.resourceType())) {
+            return "resource type";
+        }
+        if (matchesAny(host, deniedHosts)) {
+            return "host";
+        }
+        if (blockThirdPartyScripts && "script".equals(request.resourceType()) && isThirdParty(request, host)) {
+            return "third-party script";
+        }
+        return null;
+    }
+
+    private void recordResponse(Response response) {
+        String length = response.headers().get("content-length");
+        if (length == null) {
+            return;
+        }
+        try {
+            allowedBytes.addAndGet(Long.parseLong(length));
+        } catch (NumberFormatException e) {
+            logger.trace("Ignoring malformed content-length: {}", length);
+        }
+    }
+
+    private boolean isThirdParty(Request request, String host) {
+        try {
+            String pageHost = hostOf(request.frame().page().url());
+            return pageHost != null && !sameSite(host, pageHost);
+        } catch (Exception e) {
+            // Service worker and detached-frame requests have no page; treat them as first-party
+            return false;
+        }
+    }
+
+    private static boolean sameSite(String host, String pageHost) {
+        return host.equals(pageHost) || host.endsWith("." + pageHost) || pageHost.endsWith("." + host);
+    }
+
+    private static boolean matchesAny(String host, List<String> patterns) {
+        for (String pattern : patterns) {
+            if (!pattern.isBlank() && (host.equals(pattern) || host.endsWith("." + pattern))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
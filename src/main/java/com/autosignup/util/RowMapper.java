@@ -0,0 +1,12 @@
+package com.autosignup.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set. Implementations must not advance or close it.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet row) throws SQLException;
+}
@@ -0,0 +1,185 @@
+package com.autosignup.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Brings a database up to date by applying, in version order, the migrations it has not seen yet. Applied
+ * versions are recorded in {@code schema_version}, so a current database costs one query at startup.
+ * <p>
+ * Each migration runs in one transaction together with its version row, so a failure leaves neither
+ * behind. Chunked migrations instead walk a key range in batches and commit after each one, which keeps the
+ * write lock short; they must therefore be safe to resume after a crash.
+ */
+public class SchemaMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface ChunkStep {
+        /**
+         * Processes up to {@code batchSize} keys after {@code afterKey}.
+         *
+         * @return the last key covered, or {@code afterKey} once no keys are left
+         */
+        long apply(Connection connection, long afterKey, int batchSize) throws SQLException;
+    }
+
+    public record Migration(int version, String description, Step step, ChunkStep chunkStep) {
+        /**
+         * Runs the {@code ;}-separated statements of a classpath script. Lines starting with {@code --} are
+         * comments.
+         */
+        public static Migration script(int version, String description, String resource) {
+            return new Migration(version, description, connection -> executeScript(connection, resource), null);
+        }
+
+        public static Migration code(int version, String description, Step step) {
+            return new Migration(version, description, step, null);
+        }
+
+        /**
+         * A migration run as a keyset walk starting after key 0, one transaction per batch. Each batch has to
+         * advance the key, so rows a step leaves unchanged are never picked up again.
+         */
+        public static Migration chunked(int version, String description, ChunkStep step) {
+            return new Migration(version, description, null, step);
+        }
+    }
+
+    private final Connection connection;
+    private final List<Migration> migrations;
+    private final int batchSize;
+
+    /**
+     * @throws IllegalArgumentException if the versions are not strictly increasing from 1
+     */
+    public SchemaMigrator(Connection connection, List<Migration> migrations, int batchSize) {
+        int previous = 0;
+        for (Migration migration : migrations) {
+            if (migration.version() <= previous) {
+                throw new IllegalArgumentException("Migration V" + migration.version() + " is out of order after V" + previous);
+            }
+            previous = migration.version();
+        }
+        this.connection = connection;
+        this.migrations = List.copyOf(migrations);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Applies every pending migration and returns how many ran.
+     */
+    public int migrate() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INTEGER PRIMARY KEY, description TEXT NOT NULL, " +
+                    "applied_at DATETIME DEFAULT CURRENT_TIMESTAMP, duration_ms INTEGER NOT NULL)");
+        }
+        int current = currentVersion();
+        int applied = 0;
+        for (Migration migration : migrations) {
+            if (migration.version() > current) {
+                apply(migration);
+                applied++;
+            }
+        }
+        int latest = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+        if (current > latest) {
+            logger.warn("Database schema is at V{}, newer than the latest known migration V{}", current, latest);
+        } else if (applied > 0) {
+            logger.info("Migrated database schema from V{} to V{}", current, latest);
+        }
+        return applied;
+    }
+
+    public int currentVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        long started = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        int batches = 0;
+        try {
+            connection.setAutoCommit(false);
+            if (migration.chunkStep() != null) {
+                long key = 0;
+                while (true) {
+                    long next = migration.chunkStep().apply(connection, key, batchSize);
+                    connection.commit();
+                    if (next <= key) {
+                        break;
+                    }
+                    key = next;
+                    batches++;
+                }
+            } else {
+                migration.step().apply(connection);
+            }
+            long durationMs = (System.nanoTime() - started) / 1_000_000;
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, duration_ms) VALUES (?, ?, ?)")) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                stmt.setLong(3, durationMs);
+                stmt.executeUpdate();
+            }
+            connection.commit();
+            logger.info("Applied migration V{} ({}) in {} ms{}", migration.version(), migration.description(), durationMs,
+                    batches > 0 ? ", " + batches + " batch(es)" : "");
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw new SQLException("Migration V" + migration.version() + " (" + migration.description() + ") failed", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void executeScript(Connection connection, String resource) throws SQLException {
+        String script;
+        try (InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new SQLException("Migration script not found: " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read migration script " + resource, e);
+        }
+
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                sql.append(line).append('\n');
+            }
+        }
+        try (Statement stmt = connection.createStatement()) {
+            for (String statement : sql.toString().split(";")) {
+                if (!statement.isBlank()) {
+                    stmt.execute(statement.trim());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.autosignup.util;
+
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.SlotInfo;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns slot JSON from a booking API into {@link SlotInfo}. Any object in the document that carries the
+ * configured start field counts as a slot record, so the parser does not depend on how the records are nested.
+ */
+public class SlotJsonParser {
+    private static final Logger logger = LoggerFactory.getLogger(SlotJsonParser.class);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("EEE", Locale.ENGLISH);
+
+    private final String startField;
+    private final String endField;
+    private final String availableField;
+    private final ZoneId zone;
+
+    public SlotJsonParser(String startField, String endField, String availableField, ZoneId zone) {
+        this.startField = startField;
+        this.endField = endField;
+        this.availableField = availableField;
+        this.zone = zone;
+    }
+
+    public List<SlotInfo> parse(List<String> bodies, AppointmentType appointmentType, String sourceUrl) {
+        List<SlotInfo> slots = new ArrayList<>();
+        for (String body : bodies) {
+            try {
+                collect(JsonParser.parseString(body), appointmentType, sourceUrl, slots);
+            } catch (Exception e) {
+                logger.debug("Skipping unparseable slot payload from {}: {}", sourceUrl, e.getMessage());
+            }
+        }
+        return slots;
+    }
+
+    private void collect(JsonElement element, AppointmentType appointmentType, String sourceUrl, List<SlotInfo> slots) {
+        if (element.isJsonArray()) {
+            for (JsonElement child : element.getAsJsonArray()) {
+                collect(child, appointmentType, sourceUrl, slots);
+            }
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            if (object.has(startField)) {
+                SlotInfo slot = toSlot(object, appointmentType, sourceUrl);
+                if (slot != null) {
+                    slots.add(slot);
+                }
+                return;
+            }
+            for (var entry : object.entrySet()) {
+                collect(entry.getValue(), appointmentType, sourceUrl, slots);
+            }
+        }
+    }
+
+    private SlotInfo toSlot(JsonObject record, AppointmentType appointmentType, String sourceUrl) {
+        LocalDateTime start = parseTimestamp(record.get(startField));
+        if (start == null) {
+            logger.debug("Could not parse slot start: {}", record.get(startField));
+            return null;
+        }
+        LocalDateTime end = record.has(endField) ? parseTimestamp(record.get(endField)) : null;
+        if (end == null) {
+            end = start.plusHours(1);
+        }
+        boolean available = !record.has(availableField) || isTruthy(record.get(availableField));
+
+        return new SlotInfo(null, start.format(DAY_FORMAT), start.format(TIME_FORMAT),
+                start, end, available, appointmentType, sourceUrl);
+    }
+
+    private LocalDateTime parseTimestamp(JsonElement value) {
+        if (value == null || !value.isJsonPrimitive()) {
+            return null;
+        }
+        JsonPrimitive primitive = value.getAsJsonPrimitive();
+        if (primitive.isNumber()) {
+            long epoch = primitive.getAsLong();
+            // Values below ~year 2286 in seconds are treated as epoch seconds, the rest as milliseconds
+            Instant instant = epoch < 10_000_000_000L ? Instant.ofEpochSecond(epoch) : Instant.ofEpochMilli(epoch);
+            return LocalDateTime.ofInstant(instant, zone);
+        }
+        String text = primitive.getAsString();
+        try {
+            return OffsetDateTime.parse(text).atZoneSameInstant(zone).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(text.replace(' ', 'T'));
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static boolean isTruthy(JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return false;
+        }
+        if (!value.isJsonPrimitive()) {
+            return true;
+        }
+        JsonPrimitive primitive = value.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            return primitive.getAsDouble() > 0;
+        }
+        String text = primitive.getAsString().trim();
+        return !text.isEmpty() && !text.equalsIgnoreCase("false") && !text.equals("0");
+    }
+}
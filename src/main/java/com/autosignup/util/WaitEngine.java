@@ -0,0 +1,128 @@
+package com.autosignup.util;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.WaitForSelectorState;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Readiness predicates used in place of fixed sleeps. Each predicate waits at most its own budget and
+ * returns false (rather than throwing) when the budget runs out, so callers can carry on best-effort.
+ * With fast mode off the wrapper keeps the legacy slowMo and fixed delays.
+ */
+@Component
+public class WaitEngine {
+    private static final Logger logger = LoggerFactory.getLogger(WaitEngine.class);
+    private static final double POLL_INTERVAL_MS = 50;
+
+    private static final String ANGULAR_SETTLED_JS = "() => { " +
+            "const ng = window.angular; if (!ng) return true; " +
+            "try { " +
+            "const root = document.querySelector('[ng-app], [data-ng-app], .ng-scope') || document.body; " +
+            "const injector = ng.element(root).injector(); if (!injector) return true; " +
+            "return injector.get('$http').pendingRequests.length === 0 && !injector.get('$rootScope').$$phase; " +
+            "} catch (e) { return true; } }";
+
+    private static final String INSTALL_MUTATION_OBSERVER_JS = "() => { " +
+            "if (window.__autosignupObserver) return; " +
+            "window.__autosignupLastMutation = performance.now(); " +
+            "window.__autosignupObserver = new MutationObserver(() => { window.__autosignupLastMutation = performance.now(); }); " +
+            "window.__autosignupObserver.observe(document, {subtree: true, childList: true, attributes: true, characterData: true}); }";
+
+    private static final String DOM_QUIET_JS = "quietMs => performance.now() - window.__autosignupLastMutation >= quietMs";
+
+    @Getter
+    @Value("${playwright.fast-mode:true}")
+    private boolean fastMode = true;
+
+    @Value("${playwright.wait.selector-ms:10000}")
+    private int selectorBudgetMs = 10000;
+
+    @Value("${playwright.wait.network-idle-ms:5000}")
+    private int networkIdleBudgetMs = 5000;
+
+    @Value("${playwright.wait.angular-ms:3000}")
+    private int angularBudgetMs = 3000;
+
+    @Value("${playwright.wait.dom-quiet-ms:150}")
+    private int domQuietWindowMs = 150;
+
+    @Value("${playwright.wait.dom-quiet-budget-ms:3000}")
+    private int domQuietBudgetMs = 3000;
+
+    public boolean selectorVisible(Page page, String selector) {
+        return selectorVisible(page, selector, selectorBudgetMs);
+    }
+
+    public boolean selectorVisible(Page page, String selector, int budgetMs) {
+        long start = System.currentTimeMillis();
+        try {
+            page.waitForSelector(selector, new Page.WaitForSelectorOptions()
+                    .setState(WaitForSelectorState.VISIBLE)
+                    .setTimeout(budgetMs));
+            logger.debug("Selector {} visible after {} ms", selector, System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            logger.debug("Selector {} not visible within {} ms", selector, budgetMs);
+            return false;
+        }
+    }
+
+    public boolean networkIdle(Page page) {
+        long start = System.currentTimeMillis();
+        try {
+            page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(networkIdleBudgetMs));
+            logger.debug("Network idle after {} ms", System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            logger.debug("Network not idle within {} ms", networkIdleBudgetMs);
+            return false;
+        }
+    }
+
+    public boolean angularSettled(Page page) {
+        long start = System.currentTimeMillis();
+        try {
+            page.waitForFunction(ANGULAR_SETTLED_JS, null, new Page.WaitForFunctionOptions()
+                    .setPollingInterval(POLL_INTERVAL_MS)
+                    .setTimeout(angularBudgetMs));
+            logger.debug("Angular digest settled after {} ms", System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            logger.debug("Angular digest not settled within {} ms", angularBudgetMs);
+            return false;
+        }
+    }
+
+    public boolean domQuiet(Page page) {
+        long start = System.currentTimeMillis();
+        try {
+            page.evaluate(INSTALL_MUTATION_OBSERVER_JS);
+            page.waitForFunction(DOM_QUIET_JS, domQuietWindowMs, new Page.WaitForFunctionOptions()
+                    .setPollingInterval(POLL_INTERVAL_MS)
+                    .setTimeout(domQuietBudgetMs));
+            logger.debug("DOM quiet for {} ms after {} ms", domQuietWindowMs, System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            logger.debug("DOM still mutating after {} ms", domQuietBudgetMs);
+            return false;
+        }
+    }
+
+    /**
+     * Waits until the page has settled after an interaction. In fast mode that is the Angular digest
+     * followed by a short DOM quiet window; otherwise the legacy fixed delay.
+     */
+    public void settle(Page page, int legacyDelayMs) {
+        if (!fastMode) {
+            page.waitForTimeout(legacyDelayMs);
+            return;
+        }
+        angularSettled(page);
+        domQuiet(page);
+    }
+}
@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS site_release_history (
+    site_url TEXT NOT NULL,
+    hour_of_week INTEGER NOT NULL,
+    observations INTEGER NOT NULL DEFAULT 0,
+    changes INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (site_url, hour_of_week)
+);
+
+-- Side effects of a booking, written in the same transaction as the appointment row
+CREATE TABLE IF NOT EXISTS outbox (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    appointment_id INTEGER NOT NULL REFERENCES appointments(id),
+    kind TEXT NOT NULL,
+    payload TEXT,
+    status TEXT NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_status ON outbox(status, next_attempt_at);
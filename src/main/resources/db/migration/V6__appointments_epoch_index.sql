@@ -0,0 +1,4 @@
+-- Serves the protocol range queries from the index alone, replacing the index on the text start timestamp
+CREATE INDEX IF NOT EXISTS idx_appointments_type_start_end ON appointments(appointment_type, start_epoch, end_epoch);
+
+DROP INDEX IF EXISTS idx_appointment_start_timestamp;
@@ -0,0 +1,12 @@
+-- Every slot seen by a scan, available or not, appended once per sweep. Times are epoch seconds
+CREATE TABLE IF NOT EXISTS slot_observations (
+    id INTEGER PRIMARY KEY,
+    site_url TEXT NOT NULL,
+    appointment_type TEXT,
+    start_epoch INTEGER NOT NULL,
+    end_epoch INTEGER NOT NULL,
+    available INTEGER NOT NULL,
+    seen_at INTEGER NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_slot_observations_seen_at ON slot_observations(seen_at);
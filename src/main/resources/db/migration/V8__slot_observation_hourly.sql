@@ -0,0 +1,13 @@
+-- Raw slot observations past retention, folded into one row per slot and hour of seen_at
+CREATE TABLE IF NOT EXISTS slot_observation_hourly (
+    site_url TEXT NOT NULL,
+    appointment_type TEXT,
+    start_epoch INTEGER NOT NULL,
+    end_epoch INTEGER NOT NULL,
+    hour_epoch INTEGER NOT NULL,
+    observations INTEGER NOT NULL,
+    available_count INTEGER NOT NULL,
+    first_seen INTEGER NOT NULL,
+    last_seen INTEGER NOT NULL,
+    PRIMARY KEY (site_url, start_epoch, end_epoch, hour_epoch)
+);
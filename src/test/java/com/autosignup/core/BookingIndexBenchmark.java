@@ -0,0 +1,106 @@
+package com.autosignup.core;
+
+import com.autosignup.model.Appointment;
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.Signup;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.protocol.TypeWeeksBasedProtocol;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.util.BookingIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory booking index with the SQL fallback used when {@code db.booking-index.enabled=false},
+ * which loads the bookings around each slot with {@link BotDBManager#loadBookings}. Not part of the test suite; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.autosignup.core.BookingIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingIndexBenchmark {
+    private static final String DB_PATH = "benchmark-booking-index.db";
+
+    @Param({"10", "1000"})
+    public int bookings;
+
+    private BotDBManager botDBManager;
+    private BotDBManager withoutIndex;
+    private TypeWeeksBasedProtocol protocol;
+    private TypeWeeksBasedProtocol sqlProtocol;
+    private final List<SlotInfo> slots = new ArrayList<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        new File(DB_PATH).delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + DB_PATH);
+        protocol = new TypeWeeksBasedProtocol(botDBManager, 1);
+
+        LocalDateTime base = LocalDateTime.of(2020, 1, 6, 9, 0);
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = base.plusDays(3L * i);
+            botDBManager.recordSignup(new Signup("www.bench.com",
+                    new Appointment(start, start.plusHours(1), "Bench", "Bench", "Bench", "Bench", AppointmentType.MASSAGE)));
+        }
+        for (int i = 0; i < 256; i++) {
+            LocalDateTime start = base.plusHours(13L * i);
+            slots.add(new SlotInfo(null, "Mon", "09:00", start, start.plusHours(1), true, AppointmentType.MASSAGE, "www.bench.com"));
+        }
+        withoutIndex = new BotDBManager("jdbc:sqlite:" + DB_PATH) {
+            @Override
+            public BookingIndex getBookingIndex() {
+                return null;
+            }
+        };
+        sqlProtocol = new TypeWeeksBasedProtocol(withoutIndex, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        withoutIndex.close();
+        botDBManager.close();
+        new File(DB_PATH).delete();
+    }
+
+    @Benchmark
+    public boolean index() {
+        return protocol.checkValidity(nextSlot());
+    }
+
+    @Benchmark
+    public boolean sql() {
+        return sqlProtocol.checkValidity(nextSlot());
+    }
+
+    private SlotInfo nextSlot() {
+        return slots.get(next++ & (slots.size() - 1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookingIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,48 @@
+package com.autosignup.core;
+
+import com.autosignup.model.SlotInfo;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.util.BookingIndex;
+import com.autosignup.util.ParameterBinder;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Per-slot SQL version of the type-weeks rule, written independently of {@link BookingIndex} so the protocol's
+ * verdicts can be checked against it.
+ */
+final class SqlValidityReference {
+    static final String WEEK_QUERY = """
+            SELECT COUNT(*) AS cnt
+            FROM appointments
+            WHERE appointment_type = ?
+              AND start_epoch BETWEEN ? AND ?
+            """;
+
+    static final String OVERLAP_QUERY = """
+            SELECT COUNT(*) AS cnt
+            FROM appointments
+            WHERE appointment_type = ?
+              AND start_epoch < ?
+              AND end_epoch > ?
+            """;
+
+    private SqlValidityReference() {
+    }
+
+    static boolean isValid(BotDBManager dbManager, SlotInfo slot, int windowWeeks) throws SQLException {
+        LocalDate startOfWeek = BookingIndex.weekOf(slot.start());
+        long weekStart = BotDBManager.toEpoch(startOfWeek.atStartOfDay());
+        long weekEnd = BotDBManager.toEpoch(startOfWeek.plusWeeks(windowWeeks).atStartOfDay()) - 1;
+
+        long inWindow = dbManager.queryFirst(WEEK_QUERY,
+                ParameterBinder.of(slot.appointmentType(), weekStart, weekEnd), rs -> rs.getLong("cnt")).orElse(0L);
+        if (inWindow > 0) {
+            return false;
+        }
+        long overlapping = dbManager.queryFirst(OVERLAP_QUERY,
+                ParameterBinder.of(slot.appointmentType(), slot.end(), slot.start()), rs -> rs.getLong("cnt")).orElse(0L);
+        return overlapping == 0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.autosignup.core;
+
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.WebsiteSpecs;
+import com.autosignup.service.AdaptivePollScheduler;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.service.ConfigLoaderService;
+import com.autosignup.util.ReleaseHistory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestAdaptivePollScheduler {
+    private static final String TEST_DB_PATH = "test-adaptive.db";
+    private static final WebsiteSpecs SITE = new WebsiteSpecs(null, "http://test.com/schedule", AppointmentType.MASSAGE);
+    // Monday 10:15 UTC
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2025, 11, 10, 10, 15, 0, 0, ZoneOffset.UTC);
+
+    private BotDBManager botDBManager;
+    private AdaptivePollScheduler scheduler;
+
+    @Before
+    public void setup() {
+        File dbFile = new File(TEST_DB_PATH);
+        if (dbFile.exists()) dbFile.delete();
+
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+        scheduler = new AdaptivePollScheduler(botDBManager, new ConfigLoaderService());
+    }
+
+    @After
+    public void teardown() {
+        botDBManager.close();
+        File dbFile = new File(TEST_DB_PATH);
+        if (dbFile.exists()) dbFile.delete();
+    }
+
+    @Test
+    public void testSitesAreDueUntilScannedThenWaitTheirInterval() {
+        long nowMs = NOW.toInstant().toEpochMilli();
+        assertEquals("A site never scanned is due", 1, scheduler.dueSites(List.of(SITE), nowMs).size());
+
+        scheduler.recordScan(SITE, List.of(), nowMs);
+
+        assertTrue("Just scanned", scheduler.dueSites(List.of(SITE), nowMs + 1000).isEmpty());
+        assertEquals("Default interval without history is check_interval_seconds",
+                nowMs + 300_000, scheduler.nextRunAtMs());
+    }
+
+    @Test
+    public void testIntervalFollowsChangeRate() {
+        ReleaseHistory history = new ReleaseHistory();
+        history.load(0, 10, 5);
+        history.load(1, 10, 0);
+        history.load(2, 2, 2);
+
+        assertEquals("Hot hour polls at the minimum", 60, scheduler.intervalSeconds(history, 0));
+        assertEquals("Dead hour polls at the maximum", 1800, scheduler.intervalSeconds(history, 1));
+        assertEquals("Too few observations keeps the default", 300, scheduler.intervalSeconds(history, 2));
+    }
+
+    @Test
+    public void testHistorySurvivesRestart() {
+        long nowMs = NOW.toInstant().toEpochMilli();
+        scheduler.recordScan(SITE, List.of(slot(14)), nowMs);
+        scheduler.recordScan(SITE, List.of(slot(15)), nowMs + 60_000);
+
+        ReleaseHistory reloaded = botDBManager.loadReleaseHistory(SITE.url());
+        int bucket = ReleaseHistory.bucketOf(NOW);
+        assertEquals(1, reloaded.observations(bucket));
+        assertEquals(1, reloaded.changes(bucket));
+    }
+
+    @Test
+    public void testFailedScanIsNotCountedAsAChange() {
+        long nowMs = NOW.toInstant().toEpochMilli();
+        scheduler.recordScan(SITE, List.of(slot(14)), nowMs);
+        scheduler.recordScan(SITE, List.of(), nowMs + 60_000);
+        scheduler.recordScan(SITE, List.of(slot(14)), nowMs + 120_000);
+
+        ReleaseHistory reloaded = botDBManager.loadReleaseHistory(SITE.url());
+        int bucket = ReleaseHistory.bucketOf(NOW);
+        assertEquals("Only the recovered scan is an observation", 1, reloaded.observations(bucket));
+        assertEquals(0, reloaded.changes(bucket));
+    }
+
+    private static SlotInfo slot(int hour) {
+        LocalDateTime start = LocalDateTime.of(2025, 11, 12, hour, 0);
+        return new SlotInfo(null, "Wed", hour + ":00", start, start.plusHours(1), true, AppointmentType.MASSAGE, SITE.url());
+    }
+}
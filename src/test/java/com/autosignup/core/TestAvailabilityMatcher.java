@@ -0,0 +1,69 @@
+package com.autosignup.core;
+
+import com.autosignup.model.config.AvailabilityMatcher;
+import com.autosignup.model.config.SlotConfig;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestAvailabilityMatcher {
+    private static final List<SlotConfig> SLOTS = List.of(
+            new SlotConfig("Monday", "09:00", "12:00"),
+            new SlotConfig("MON", "11:30", "13:00"),
+            new SlotConfig("wed", "18:00", "20:30"),
+            new SlotConfig("Sunday", "00:00", "01:00"));
+
+    // The per-pair check filterForConfig used before the matcher was compiled
+    private static boolean matchesLikeBefore(LocalDateTime start, LocalDateTime end, SlotConfig config) {
+        if (!start.getDayOfWeek().toString().substring(0, 3).equalsIgnoreCase(config.day().substring(0, 3))) {
+            return false;
+        }
+        LocalTime slotStart = LocalTime.parse(config.start());
+        LocalTime slotEnd = LocalTime.parse(config.end());
+        LocalTime a = start.toLocalTime();
+        LocalTime b = end.toLocalTime();
+        return (!a.isBefore(slotStart) && a.isBefore(slotEnd))
+                || (b.isAfter(slotStart) && !b.isAfter(slotEnd))
+                || (!a.isAfter(slotStart) && !b.isBefore(slotEnd));
+    }
+
+    @Test
+    public void testMatchesLikePerPairCheck() {
+        AvailabilityMatcher matcher = AvailabilityMatcher.compile(SLOTS);
+        // 2025-11-09 is a Sunday; walk a week in 5-minute steps with a few durations
+        LocalDateTime weekStart = LocalDateTime.of(2025, 11, 9, 0, 0);
+        for (int minute = 0; minute < 7 * 24 * 60; minute += 5) {
+            for (int duration : new int[]{15, 45, 90}) {
+                LocalDateTime start = weekStart.plusMinutes(minute);
+                LocalDateTime end = start.plusMinutes(duration);
+                if (!end.toLocalDate().equals(start.toLocalDate())) {
+                    continue;
+                }
+                boolean expected = SLOTS.stream().anyMatch(config -> matchesLikeBefore(start, end, config));
+                assertEquals("Mismatch for " + start + " - " + end, expected, matcher.matches(start, end));
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidEntriesAreRejected() {
+        for (SlotConfig bad : List.of(
+                new SlotConfig("Funday", "09:00", "10:00"),
+                new SlotConfig("Mo", "09:00", "10:00"),
+                new SlotConfig("Tue", "9am", "10:00"),
+                new SlotConfig("Tue", "10:00", "09:00"),
+                new SlotConfig("Tue", null, "09:00"))) {
+            try {
+                AvailabilityMatcher.compile(List.of(SLOTS.get(0), bad));
+                fail("Expected " + bad + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains(bad.toString()));
+            }
+        }
+        assertTrue(AvailabilityMatcher.compile(List.of()).isEmpty());
+    }
+}
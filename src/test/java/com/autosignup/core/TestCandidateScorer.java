@@ -0,0 +1,69 @@
+package com.autosignup.core;
+
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.util.CandidateScorer;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestCandidateScorer {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 11, 10, 8, 0);
+
+    private static SlotInfo slot(String url, LocalDateTime start, boolean available) {
+        return new SlotInfo(null, start.getDayOfWeek().toString(), start.toLocalTime().toString(),
+                start, start.plusHours(1), available, AppointmentType.MASSAGE, url);
+    }
+
+    @Test
+    public void testTopKMatchesFullSort() {
+        Random random = new Random(42);
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add(random.nextInt(100));
+        }
+        List<Integer> expected = items.stream().sorted(Comparator.reverseOrder()).limit(7).toList();
+
+        assertEquals(expected, CandidateScorer.topK(items, Integer::doubleValue, 7));
+        assertEquals(3, CandidateScorer.topK(List.of(1, 2, 3), Integer::doubleValue, 10).size());
+        assertTrue(CandidateScorer.topK(items, Integer::doubleValue, 0).isEmpty());
+    }
+
+    @Test
+    public void testSitePriorityOutweighsOtherTerms() {
+        CandidateScorer scorer = new CandidateScorer();
+        SlotInfo preferredSite = slot("http://a.test", NOW.plusDays(6), true);
+        SlotInfo otherSite = slot("http://b.test", NOW.plusHours(2), true);
+
+        double preferred = scorer.score(preferredSite, 1, 1, 2, NOW);
+        double other = scorer.score(otherSite, 2, 0, 2, NOW);
+
+        assertTrue(preferred > other);
+        assertTrue(scorer.score(otherSite, 2, 0, 2, NOW) > scorer.score(otherSite, 2, 1, 2, NOW));
+        assertTrue(scorer.score(otherSite, 2, 0, 2, NOW) > scorer.score(otherSite, 0, 0, 2, NOW));
+    }
+
+    @Test
+    public void testScarcityIsLearnedFromScans() {
+        CandidateScorer scorer = new CandidateScorer();
+        LocalDateTime common = NOW.plusHours(2);
+        LocalDateTime rare = NOW.plusHours(5);
+        assertEquals(0.5, scorer.scarcity("http://a.test", common), 1e-9);
+
+        for (int scan = 0; scan < 4; scan++) {
+            List<SlotInfo> slots = new ArrayList<>(List.of(slot("http://a.test", common, true)));
+            slots.add(slot("http://a.test", rare, scan == 0));
+            scorer.observe("http://a.test", slots);
+        }
+
+        assertEquals(0.0, scorer.scarcity("http://a.test", common), 1e-9);
+        assertEquals(0.75, scorer.scarcity("http://a.test", rare), 1e-9);
+        assertEquals(1.0, scorer.scarcity("http://a.test", NOW.plusHours(9)), 1e-9);
+    }
+}
@@ -2,14 +2,22 @@ package com.autosignup.core;
 
 import com.autosignup.model.Appointment;
 import com.autosignup.model.AppointmentType;
+import com.autosignup.model.OutboxEntry;
 import com.autosignup.model.Signup;
 import com.autosignup.service.BotDBManager;
+import com.autosignup.util.ParameterBinder;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import java.io.File;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -67,4 +75,159 @@ public class TestDBManager {
             fail("Data verification failed: " + e.getMessage());
         }
     }
+
+    @Test
+    public void testSignupQueuesCalendarEventInOutbox() {
+        botDBManager.recordSignup(new Signup("www.dummy.ca",
+                new Appointment(LocalDateTime.of(2025, 11, 10, 14, 0), LocalDateTime.of(2025, 11, 10, 15, 0),
+                        "EventName", "summary", "description", "location",
+                        AppointmentType.MASSAGE)));
+
+        List<OutboxEntry> claimed = botDBManager.claimOutboxBatch(10);
+        assertEquals(1, claimed.size());
+        OutboxEntry entry = claimed.get(0);
+        assertEquals(OutboxEntry.Kind.CALENDAR_EVENT, entry.kind());
+        assertEquals("summary", entry.appointment().summary());
+        assertEquals(LocalDateTime.of(2025, 11, 10, 14, 0), entry.appointment().start());
+        assertTrue("Claimed entries are not handed out twice", botDBManager.claimOutboxBatch(10).isEmpty());
+
+        botDBManager.completeCalendarEntry(entry, "event123", "{}");
+
+        List<OutboxEntry> next = botDBManager.claimOutboxBatch(10);
+        assertEquals(1, next.size());
+        assertEquals(OutboxEntry.Kind.CONFIRMATION_EMAIL, next.get(0).kind());
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_PATH);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT google_event_id FROM appointments")) {
+            assertTrue(rs.next());
+            assertEquals("event123", rs.getString(1));
+        } catch (SQLException e) {
+            fail("Data verification failed: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testInFlightOutboxEntriesAreReplayedAfterRestart() {
+        botDBManager.recordSignup(new Signup("www.dummy.ca",
+                new Appointment(LocalDateTime.of(2025, 11, 10, 14, 0), LocalDateTime.of(2025, 11, 10, 15, 0),
+                        "EventName", "summary", "description", "location",
+                        AppointmentType.MASSAGE)));
+        assertEquals(1, botDBManager.claimOutboxBatch(10).size());
+
+        // Simulate a crash while the entry was being delivered
+        botDBManager.close();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + DB_PATH);
+
+        assertEquals(1, botDBManager.resetInFlightOutbox());
+        assertEquals(1, botDBManager.claimOutboxBatch(10).size());
+    }
+
+    @Test
+    public void testBookingsQueryUsesCompositeIndex() throws SQLException {
+        for (int types = 1; types <= 2; types++) {
+            List<Object> params = new ArrayList<>(List.of("MASSAGE", "CHIRO").subList(0, types));
+            params.add(1L);
+            params.add(0L);
+            String plan = String.join("\n", botDBManager.query("EXPLAIN QUERY PLAN " + BotDBManager.bookingsQuery(types),
+                    ParameterBinder.of(params.toArray()), rs -> rs.getString("detail")));
+            assertTrue("Expected an index range search, got: " + plan,
+                    plan.contains("USING COVERING INDEX idx_appointments_type_start_end (appointment_type=? AND start_epoch<?)"));
+            assertFalse("Expected no table scan, got: " + plan, plan.startsWith("SCAN"));
+        }
+    }
+
+    @Test
+    public void testTextTimestampsAreMigratedToEpochColumns() throws SQLException {
+        botDBManager.close();
+        new File(DB_PATH).delete();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_PATH);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE appointments (id INTEGER PRIMARY KEY AUTOINCREMENT, site_name TEXT, " +
+                    "signup_timestamp DATETIME DEFAULT CURRENT_TIMESTAMP, appointment_start_timestamp DATETIME, " +
+                    "appointment_end_timestamp DATETIME, appointment_type TEXT)");
+            stmt.execute("CREATE INDEX idx_appointment_start_timestamp ON appointments(appointment_start_timestamp)");
+            for (int i = 0; i < 3; i++) {
+                stmt.execute("INSERT INTO appointments (site_name, appointment_start_timestamp, appointment_end_timestamp, " +
+                        "appointment_type) VALUES ('www.old.ca', '2025-11-1" + i + " 09:00:00', '2025-11-1" + i + " 10:00:00', 'MASSAGE')");
+            }
+        }
+
+        botDBManager = new BotDBManager("jdbc:sqlite:" + DB_PATH);
+
+        List<long[]> epochs = botDBManager.query("SELECT start_epoch, end_epoch FROM appointments ORDER BY id",
+                ParameterBinder.NONE, rs -> new long[]{rs.getLong("start_epoch"), rs.getLong("end_epoch")});
+        assertEquals(3, epochs.size());
+        for (int i = 0; i < 3; i++) {
+            LocalDateTime start = LocalDateTime.of(2025, 11, 10 + i, 9, 0);
+            assertEquals(BotDBManager.toEpoch(start), epochs.get(i)[0]);
+            assertEquals(BotDBManager.toEpoch(start.plusHours(1)), epochs.get(i)[1]);
+        }
+        assertEquals(3, botDBManager.getBookingIndex().size());
+
+        List<String> names = botDBManager.query("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = ?",
+                ParameterBinder.of("appointments"), rs -> rs.getString(1));
+        assertTrue(names.contains("idx_appointments_type_start_end"));
+        assertFalse(names.contains("idx_appointment_start_timestamp"));
+
+        List<Integer> versions = botDBManager.query("SELECT version FROM schema_version ORDER BY version",
+                ParameterBinder.NONE, rs -> rs.getInt(1));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), versions);
+    }
+
+    @Test
+    public void testUnparseableTimestampsDoNotStallTheBackfill() throws SQLException {
+        botDBManager.close();
+        new File(DB_PATH).delete();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_PATH);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE appointments (id INTEGER PRIMARY KEY AUTOINCREMENT, site_name TEXT, " +
+                    "signup_timestamp DATETIME DEFAULT CURRENT_TIMESTAMP, appointment_start_timestamp DATETIME, " +
+                    "appointment_end_timestamp DATETIME, appointment_type TEXT)");
+            // More malformed rows than a migration batch, followed by one good row
+            for (int i = 0; i < 1200; i++) {
+                stmt.execute("INSERT INTO appointments (site_name, appointment_start_timestamp, appointment_end_timestamp, " +
+                        "appointment_type) VALUES ('www.old.ca', 'next tuesday', 'later', 'MASSAGE')");
+            }
+            stmt.execute("INSERT INTO appointments (site_name, appointment_start_timestamp, appointment_end_timestamp, " +
+                    "appointment_type) VALUES ('www.old.ca', '2025-11-10 09:00:00', '2025-11-10 10:00:00', 'MASSAGE')");
+        }
+
+        botDBManager = new BotDBManager("jdbc:sqlite:" + DB_PATH);
+
+        List<Long> epochs = botDBManager.query("SELECT start_epoch FROM appointments WHERE start_epoch IS NOT NULL",
+                ParameterBinder.NONE, rs -> rs.getLong(1));
+        assertEquals(List.of(BotDBManager.toEpoch(LocalDateTime.of(2025, 11, 10, 9, 0))), epochs);
+    }
+
+    @Test
+    public void testReadsRunInWalModeWithoutWaitingForTheWriter() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_PATH);
+             Statement stmt = conn.createStatement();
+             ResultSet mode = stmt.executeQuery("PRAGMA journal_mode")) {
+            assertTrue(mode.next());
+            assertEquals("wal", mode.getString(1));
+        }
+
+        LocalDateTime start = LocalDateTime.of(2025, 11, 10, 9, 0);
+        botDBManager.recordSignup(new Signup("www.dummy.ca",
+                new Appointment(start, start.plusHours(1), "Massage", "Massage", "", "", AppointmentType.MASSAGE)));
+
+        // Hold the writer's lock, as a long write transaction would, while several threads read
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            synchronized (botDBManager) {
+                List<Future<Integer>> reads = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    reads.add(pool.submit(() -> botDBManager.loadBookings(
+                            List.of(AppointmentType.MASSAGE), start.minusDays(1), start.plusDays(1)).size()));
+                }
+                for (Future<Integer> read : reads) {
+                    assertEquals(Integer.valueOf(1), read.get(5, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue("Repeated reads should reuse cached statements", botDBManager.poolStats().statementHits() > 0);
+    }
 }
@@ -0,0 +1,114 @@
+package com.autosignup.core;
+
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.SlotObservation;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.service.DatabaseMaintenanceService;
+import com.autosignup.util.ParameterBinder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestDatabaseMaintenance {
+    private static final String TEST_DB_PATH = "test-maintenance.db";
+    private static final Instant NOW = Instant.parse("2025-12-01T12:00:00Z");
+    private BotDBManager botDBManager;
+
+    @Before
+    public void setup() {
+        new File(TEST_DB_PATH).delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+    }
+
+    @After
+    public void teardown() {
+        botDBManager.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    // One slot scanned every 10 minutes for the given hours, available on every other scan
+    private void observe(Instant from, int hours) {
+        LocalDateTime start = LocalDateTime.of(2025, 12, 20, 9, 0);
+        List<SlotObservation> rows = new ArrayList<>();
+        for (int scan = 0; scan < hours * 6; scan++) {
+            rows.add(new SlotObservation("http://a.test", AppointmentType.MASSAGE, start, start.plusHours(1),
+                    scan % 2 == 0, from.plus(Duration.ofMinutes(10L * scan))));
+        }
+        botDBManager.recordObservations(rows);
+    }
+
+    private long scalar(String sql) throws SQLException {
+        return botDBManager.queryFirst(sql, ParameterBinder.NONE, rs -> rs.getLong(1)).orElse(0L);
+    }
+
+    // Read over a fresh connection so no cached statement or page cache is involved
+    private int autoVacuum() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + TEST_DB_PATH);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+
+    @Test
+    public void testOldObservationsAreRolledUpInBatches() throws SQLException {
+        assertEquals("New databases start with incremental auto-vacuum", 2, autoVacuum());
+        Instant old = NOW.minus(Duration.ofDays(30)).truncatedTo(ChronoUnit.HOURS);
+        observe(old, 5);
+        observe(NOW.minus(Duration.ofHours(2)), 1);
+        DatabaseMaintenanceService maintenance = new DatabaseMaintenanceService(botDBManager);
+        maintenance.setBatchSize(7);
+        maintenance.setBatchPauseMs(0);
+
+        DatabaseMaintenanceService.MaintenanceReport report = maintenance.run(NOW);
+
+        assertEquals(30, report.observationsRolledUp());
+        assertEquals("Recent observations stay raw", 6, scalar("SELECT COUNT(*) FROM slot_observations"));
+        assertEquals(5, scalar("SELECT COUNT(*) FROM slot_observation_hourly"));
+        assertEquals(30, scalar("SELECT SUM(observations) FROM slot_observation_hourly"));
+        assertEquals(15, scalar("SELECT SUM(available_count) FROM slot_observation_hourly"));
+        assertEquals(old.getEpochSecond(), scalar("SELECT MIN(first_seen) FROM slot_observation_hourly"));
+        assertTrue(report.sizeAfterBytes() > 0);
+        assertEquals(2, autoVacuum());
+        assertEquals("Freed pages are returned to the file system", 0, scalar("PRAGMA freelist_count"));
+
+        assertEquals("A second run finds nothing left to roll up", 0, maintenance.run(NOW).observationsRolledUp());
+    }
+
+    @Test
+    public void testExistingDatabaseIsOnlyConvertedWhenAskedTo() throws SQLException {
+        botDBManager.close();
+        new File(TEST_DB_PATH).delete();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + TEST_DB_PATH);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE appointments (id INTEGER PRIMARY KEY AUTOINCREMENT, site_name TEXT, " +
+                    "signup_timestamp DATETIME DEFAULT CURRENT_TIMESTAMP, appointment_start_timestamp DATETIME, " +
+                    "appointment_end_timestamp DATETIME, appointment_type TEXT)");
+        }
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+        DatabaseMaintenanceService maintenance = new DatabaseMaintenanceService(botDBManager);
+        maintenance.setBatchPauseMs(0);
+
+        maintenance.run(NOW);
+        assertEquals(0, autoVacuum());
+
+        maintenance.setConvertAutoVacuum(true);
+        maintenance.run(NOW);
+        assertEquals(2, autoVacuum());
+    }
+}
@@ -0,0 +1,96 @@
+package com.autosignup.core;
+
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.util.HttpSlotPoller;
+import com.autosignup.util.SlotJsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestHttpSlotPoller {
+    private static final String SLOTS_JSON = """
+            {"slots": [
+              {"start": "2025-11-10T14:00:00", "end": "2025-11-10T15:00:00", "available": true},
+              {"start": "2025-11-11T09:00:00", "end": "2025-11-11T10:00:00", "available": false}
+            ]}
+            """;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger requestsWithCookie = new AtomicInteger();
+    private HttpSlotPoller poller;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/slots", exchange -> {
+            String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            if (cookie != null && cookie.contains("session=abc")) {
+                requestsWithCookie.incrementAndGet();
+            } else {
+                exchange.getResponseHeaders().add("Set-Cookie", "session=abc; Path=/");
+            }
+            respond(exchange, 200, SLOTS_JSON);
+        });
+        server.createContext("/api/broken", exchange -> respond(exchange, 503, "unavailable"));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        poller = new HttpSlotPoller(Duration.ofSeconds(5));
+    }
+
+    @After
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testPolledSlotsAreParsed() throws IOException {
+        String body = poller.fetch(baseUrl + "/api/slots");
+        List<SlotInfo> slots = new SlotJsonParser("start", "end", "available", ZoneId.of("UTC"))
+                .parse(List.of(body), AppointmentType.MASSAGE, "http://test.com/schedule");
+
+        assertEquals(2, slots.size());
+        assertEquals(LocalDateTime.of(2025, 11, 10, 14, 0), slots.get(0).start());
+        assertTrue(slots.get(0).available());
+        assertFalse(slots.get(1).available());
+    }
+
+    @Test
+    public void testSessionCookiesAreReusedBetweenPolls() throws IOException {
+        poller.fetch(baseUrl + "/api/slots");
+        poller.fetch(baseUrl + "/api/slots");
+        poller.fetch(baseUrl + "/api/slots");
+
+        assertEquals("Polls after the first should send the session cookie back", 2, requestsWithCookie.get());
+    }
+
+    @Test(expected = IOException.class)
+    public void testErrorStatusIsReported() throws IOException {
+        poller.fetch(baseUrl + "/api/broken");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.autosignup.model.protocol.ProtocolFactory;
 import com.autosignup.navigators.VarsityMassageNavigator;
 import com.autosignup.service.BotDBManager;
 import com.autosignup.service.ConfigLoaderService;
+import com.autosignup.util.PlaywrightPool;
 import com.autosignup.util.PlaywrightWrapper;
 import org.junit.After;
 import org.junit.Before;
@@ -28,6 +29,7 @@ public class TestMassageNavigatorMockFlow {
     
     private BotDBManager botDBManager;
     private PlaywrightWrapper playwright;
+    private PlaywrightPool playwrightPool;
     private MockMassageNavigator massageNavigator;
 
     @Before
@@ -40,13 +42,14 @@ public class TestMassageNavigatorMockFlow {
         ProtocolFactory protocolFactory = new ProtocolFactory(botDBManager);
         
         playwright = new PlaywrightWrapper();
+        playwrightPool = new PlaywrightPool(playwright, 2);
 
         MockConfigLoaderService configLoader = new MockConfigLoaderService();
         configLoader.loadConfig();
         List<String> testUrls = configLoader.getTestUrls();
         logger.info("Using test URLs: {}", String.join(", ", testUrls));
         
-        massageNavigator = new MockMassageNavigator(protocolFactory, playwright, configLoader, botDBManager);
+        massageNavigator = new MockMassageNavigator(protocolFactory, playwrightPool, configLoader, botDBManager);
         massageNavigator.setUrls(testUrls);
         massageNavigator.loadConfig();
         forceEnableNavigator(massageNavigator);
@@ -60,8 +63,8 @@ public class TestMassageNavigatorMockFlow {
     public void teardown() {
         logger.info("Cleaning up massage mock flow resources…");
         
-        if (playwright != null) {
-            playwright.close();
+        if (playwrightPool != null) {
+            playwrightPool.close();
         }
         
         if (botDBManager != null) {
@@ -94,8 +97,8 @@ public class TestMassageNavigatorMockFlow {
 
 
     private static class MockMassageNavigator extends VarsityMassageNavigator {
-        public MockMassageNavigator(ProtocolFactory factory, PlaywrightWrapper playwright, ConfigLoaderService configLoader, BotDBManager botDBManager) {
-            super(factory, playwright, configLoader, botDBManager);
+        public MockMassageNavigator(ProtocolFactory factory, PlaywrightPool playwrightPool, ConfigLoaderService configLoader, BotDBManager botDBManager) {
+            super(factory, playwrightPool, configLoader, botDBManager);
         }
         
         @Override
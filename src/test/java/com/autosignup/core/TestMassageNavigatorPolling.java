@@ -0,0 +1,118 @@
+package com.autosignup.core;
+
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.WebsiteSpecs;
+import com.autosignup.model.protocol.ProtocolFactory;
+import com.autosignup.navigators.VarsityMassageNavigator;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.service.ConfigLoaderService;
+import com.autosignup.util.PlaywrightPool;
+import com.autosignup.util.PlaywrightWrapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TestMassageNavigatorPolling {
+    private static final String TEST_DB_PATH = "test-massage-polling.db";
+    private static final String PAGE_URL = "http://massage.test/schedule";
+    private static final String SLOTS_JSON = """
+            {"slots": [
+              {"start": "2025-11-10T14:00:00", "end": "2025-11-10T15:00:00", "available": true},
+              {"start": "2025-11-11T09:00:00", "end": "2025-11-11T10:00:00", "available": false}
+            ]}
+            """;
+
+    private HttpServer server;
+    private String baseUrl;
+    private BotDBManager botDBManager;
+    private final List<String> navigatedTo = new ArrayList<>();
+    private PlaywrightWrapper lane;
+
+    @Before
+    public void setup() throws IOException {
+        new File(TEST_DB_PATH).delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/slots", exchange -> respond(exchange, 200, SLOTS_JSON));
+        server.createContext("/api/broken", exchange -> respond(exchange, 503, "unavailable"));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        // Records page loads instead of starting Chromium; the page never shows any slots
+        lane = new PlaywrightWrapper() {
+            @Override
+            public void navigateTo(String url, int maxRetries) {
+                navigatedTo.add(url);
+            }
+
+            @Override
+            public boolean awaitSlots(Map<String, String> selectors) {
+                return false;
+            }
+        };
+    }
+
+    @After
+    public void teardown() {
+        server.stop(0);
+        botDBManager.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private VarsityMassageNavigator navigator(String apiPath) {
+        VarsityMassageNavigator navigator = new VarsityMassageNavigator(new ProtocolFactory(botDBManager),
+                new PlaywrightPool(lane, 1), new ConfigLoaderService(), botDBManager);
+        navigator.setUrls(List.of(PAGE_URL));
+        navigator.setApiUrls(List.of(baseUrl + apiPath));
+        navigator.setHttpPollingEnabled(true);
+        navigator.loadConfig();
+        return navigator;
+    }
+
+    @Test
+    public void testApiUrlIsPreferredOverTheBrowser() {
+        VarsityMassageNavigator navigator = navigator("/api/slots");
+        WebsiteSpecs site = navigator.getWebsites().get(0);
+
+        List<SlotInfo> slots = navigator.runPlaywright(lane, site);
+
+        assertEquals(2, slots.size());
+        assertEquals(LocalDateTime.of(2025, 11, 10, 14, 0), slots.get(0).start());
+        assertEquals(PAGE_URL, slots.get(0).sourceUrl());
+        assertTrue("A working endpoint should not load the page", navigatedTo.isEmpty());
+    }
+
+    @Test
+    public void testFailedEndpointFallsBackToTheBrowser() {
+        VarsityMassageNavigator navigator = navigator("/api/broken");
+        WebsiteSpecs site = navigator.getWebsites().get(0);
+
+        List<SlotInfo> slots = navigator.runPlaywright(lane, site);
+
+        assertTrue(slots.isEmpty());
+        assertEquals(List.of(PAGE_URL), navigatedTo);
+    }
+}
@@ -0,0 +1,44 @@
+package com.autosignup.core;
+
+import com.autosignup.util.MemoryGovernor;
+import com.autosignup.util.MemoryGovernor.MemorySample;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestMemoryGovernor {
+    private static final long MB = 1024 * 1024;
+
+    private final MemoryGovernor governor = new MemoryGovernor();
+
+    @Test
+    public void testHealthyContextIsKept() {
+        assertNull(governor.evaluate(new MemorySample(40 * MB, 5_000, 200 * MB), 3));
+    }
+
+    @Test
+    public void testThresholdsTriggerRecycle() {
+        assertNotNull("Heap over limit", governor.evaluate(new MemorySample(300 * MB, 5_000, 200 * MB), 1));
+        assertNotNull("Too many DOM nodes", governor.evaluate(new MemorySample(40 * MB, 200_000, 200 * MB), 1));
+        assertNotNull("Renderer RSS over limit", governor.evaluate(new MemorySample(40 * MB, 5_000, 900 * MB), 1));
+        assertNotNull("Navigation budget spent", governor.evaluate(new MemorySample(40 * MB, 5_000, 200 * MB), 50));
+    }
+
+    @Test
+    public void testUnreadableMetricsDoNotTriggerRecycle() {
+        assertNull(governor.evaluate(new MemorySample(-1, -1, -1), 1));
+    }
+
+    @Test
+    public void testHighWaterMarksAndRecycleCount() {
+        governor.evaluate(new MemorySample(80 * MB, 9_000, 300 * MB), 1);
+        governor.evaluate(new MemorySample(50 * MB, 12_000, 250 * MB), 2);
+        governor.recordRecycle("test");
+
+        MemoryGovernor.MemoryStats stats = governor.snapshot();
+        assertEquals(1, stats.recycles());
+        assertEquals(80 * MB, stats.heapHighWaterBytes());
+        assertEquals(12_000, stats.domNodesHighWater());
+        assertEquals(300 * MB, stats.rendererRssHighWaterBytes());
+    }
+}
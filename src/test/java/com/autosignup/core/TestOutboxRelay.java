@@ -0,0 +1,144 @@
+package com.autosignup.core;
+
+import com.autosignup.model.Appointment;
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.OutboxEntry;
+import com.autosignup.model.Signup;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.service.EmailService;
+import com.autosignup.service.OutboxRelay;
+import com.autosignup.service.SideEffectPipeline;
+import com.autosignup.util.ParameterBinder;
+import com.google.api.services.calendar.model.Event;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestOutboxRelay {
+    private static final String TEST_DB_PATH = "test-outbox-relay.db";
+    private BotDBManager botDBManager;
+
+    @Before
+    public void setup() {
+        new File(TEST_DB_PATH).delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+        botDBManager.recordSignup(new Signup("www.dummy.ca",
+                new Appointment(LocalDateTime.of(2025, 11, 10, 14, 0), LocalDateTime.of(2025, 11, 10, 15, 0),
+                        "EventName", "summary", "description", "location", AppointmentType.MASSAGE)));
+        // Deliver the calendar event by hand so only the confirmation email is left in the outbox
+        List<OutboxEntry> claimed = botDBManager.claimOutboxBatch(10);
+        botDBManager.completeCalendarEntry(claimed.get(0), "event123", "{}");
+    }
+
+    @After
+    public void teardown() {
+        botDBManager.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    // Reports every send as the given outcome without touching SMTP
+    private static class StubEmailService extends EmailService {
+        private final boolean outcome;
+        final AtomicInteger sends = new AtomicInteger();
+
+        StubEmailService(boolean outcome) {
+            this.outcome = outcome;
+        }
+
+        @Override
+        public boolean sendEmailWithCalendarEvent(Event event) {
+            sends.incrementAndGet();
+            return outcome;
+        }
+    }
+
+    private void deliver(EmailService emailService) {
+        SideEffectPipeline pipeline = new SideEffectPipeline(1, 10);
+        new OutboxRelay(botDBManager, null, emailService, pipeline).dispatch();
+        pipeline.close();
+    }
+
+    private String emailStatus() throws SQLException {
+        return botDBManager.queryFirst("SELECT status || ':' || attempts FROM outbox WHERE kind = ?",
+                ParameterBinder.of(OutboxEntry.Kind.CONFIRMATION_EMAIL), rs -> rs.getString(1)).orElseThrow();
+    }
+
+    @Test
+    public void testFailedEmailIsRetried() throws SQLException {
+        StubEmailService failing = new StubEmailService(false);
+
+        deliver(failing);
+
+        assertEquals(1, failing.sends.get());
+        assertEquals("A failed send must stay pending for a retry", "PENDING:1", emailStatus());
+    }
+
+    @Test
+    public void testSentEmailIsCompleted() throws SQLException {
+        deliver(new StubEmailService(true));
+
+        assertEquals("DONE:0", emailStatus());
+    }
+
+    @Test
+    public void testFailedDeliveryIsNotRetriedByThePipeline() throws SQLException {
+        StubEmailService failing = new StubEmailService(false);
+        SideEffectPipeline pipeline = new SideEffectPipeline(1, 10);
+        pipeline.setMaxAttempts(4);
+        pipeline.setBackoffMs(1);
+
+        new OutboxRelay(botDBManager, null, failing, pipeline).dispatch();
+        pipeline.close();
+
+        assertEquals("The outbox owns retries, so the pipeline tries once", 1, failing.sends.get());
+        assertEquals("PENDING:1", emailStatus());
+    }
+
+    @Test
+    public void testEntryWhoseCompletionCannotBeRecordedReturnsToPending() throws SQLException {
+        botDBManager.close();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH) {
+            @Override
+            public synchronized boolean completeOutboxEntry(long id) {
+                return false;
+            }
+        };
+
+        deliver(new StubEmailService(true));
+
+        assertEquals("Not left in flight", "PENDING:0", emailStatus());
+    }
+
+    @Test
+    public void testPublishDispatchesOffTheCallerThread() throws SQLException {
+        List<String> claimThreads = new CopyOnWriteArrayList<>();
+        botDBManager.close();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH) {
+            @Override
+            public synchronized List<OutboxEntry> claimOutboxBatch(int limit) {
+                claimThreads.add(Thread.currentThread().getName());
+                return super.claimOutboxBatch(limit);
+            }
+        };
+        SideEffectPipeline pipeline = new SideEffectPipeline(1, 10);
+        OutboxRelay relay = new OutboxRelay(botDBManager, null, new StubEmailService(true), pipeline);
+
+        relay.publish(List.of(new Appointment(LocalDateTime.of(2025, 11, 10, 14, 0), LocalDateTime.of(2025, 11, 10, 15, 0),
+                "EventName", "summary", "description", "location", AppointmentType.MASSAGE)));
+        relay.close();
+        pipeline.close();
+
+        assertFalse(claimThreads.isEmpty());
+        assertTrue("Claimed on " + claimThreads, claimThreads.stream().allMatch("outbox-relay"::equals));
+        assertEquals("DONE:0", emailStatus());
+    }
+}
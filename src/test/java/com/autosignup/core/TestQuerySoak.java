@@ -0,0 +1,106 @@
+package com.autosignup.core;
+
+import com.autosignup.model.Appointment;
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.Signup;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.protocol.TypeWeeksBasedProtocol;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.util.BookingIndex;
+import com.autosignup.util.ConnectionPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the read paths in a loop and checks that statements and heap stay flat. The booking index is switched off
+ * so every validity check goes to the database. Raise {@code -Dsoak.iterations} for a longer run.
+ */
+public class TestQuerySoak {
+    private static final Logger logger = LoggerFactory.getLogger(TestQuerySoak.class);
+    private static final String TEST_DB_PATH = "test-query-soak.db";
+    private static final int ITERATIONS = Integer.getInteger("soak.iterations", 2000);
+    private BotDBManager botDBManager;
+
+    @Before
+    public void setup() {
+        new File(TEST_DB_PATH).delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH) {
+            @Override
+            public BookingIndex getBookingIndex() {
+                return null;
+            }
+        };
+        LocalDateTime monday = LocalDateTime.of(2025, 11, 10, 9, 0);
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime start = monday.plusDays(i);
+            botDBManager.recordSignup(new Signup("http://soak.test", new Appointment(start, start.plusHours(1),
+                    "Soak", "Soak", "", "", AppointmentType.MASSAGE)));
+        }
+    }
+
+    @After
+    public void teardown() {
+        botDBManager.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    @Test
+    public void testRepeatedReadsDoNotLeakStatementsOrMemory() {
+        TypeWeeksBasedProtocol protocol = new TypeWeeksBasedProtocol(botDBManager, 1);
+        LocalDateTime from = LocalDateTime.of(2025, 11, 10, 0, 0);
+
+        Runnable round = () -> {
+            List<SlotInfo> page = new ArrayList<>();
+            for (int day = 0; day < 7; day++) {
+                LocalDateTime start = from.plusDays(day).withHour(14);
+                page.add(new SlotInfo(null, start.getDayOfWeek().toString(), "14:00", start,
+                        start.plusHours(1), true, AppointmentType.MASSAGE, "http://soak.test"));
+                protocol.checkValidity(page.get(day));
+            }
+            protocol.checkValidity(page);
+            try {
+                botDBManager.loadBookings(EnumSet.of(AppointmentType.MASSAGE), from, from.plusDays(60));
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        };
+
+        for (int i = 0; i < 50; i++) {
+            round.run();
+        }
+        ConnectionPool.PoolStats warm = botDBManager.poolStats();
+        long heapBefore = usedHeapAfterGc();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            round.run();
+        }
+
+        ConnectionPool.PoolStats after = botDBManager.poolStats();
+        long heapAfter = usedHeapAfterGc();
+        logger.info("Soak of {} rounds: {}, heap growth {} KB", ITERATIONS, after, (heapAfter - heapBefore) / 1024);
+
+        assertEquals("No statements should be prepared after warmup (" + after + ")",
+                warm.statementMisses(), after.statementMisses());
+        assertEquals("Open statements changed (" + after + ")", warm.openStatements(), after.openStatements());
+        assertTrue("Heap grew by " + (heapAfter - heapBefore) + " bytes", heapAfter - heapBefore < 32L * 1024 * 1024);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,54 @@
+package com.autosignup.core;
+
+import com.autosignup.model.config.ReleaseTime;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+
+public class TestReleaseTime {
+    private static final ZoneId ZONE = ZoneId.of("America/Vancouver");
+
+    @Test
+    public void testParse() {
+        assertEquals(new ReleaseTime(DayOfWeek.SUNDAY, LocalTime.of(9, 0)), ReleaseTime.parse("SUN 09:00"));
+        assertEquals(new ReleaseTime(DayOfWeek.WEDNESDAY, LocalTime.of(17, 30)), ReleaseTime.parse("wednesday 17:30"));
+    }
+
+    @Test
+    public void testParseWithSite() {
+        ReleaseTime releaseTime = ReleaseTime.parse("SUN 09:00 http://test.com/schedule");
+
+        assertEquals("http://test.com/schedule", releaseTime.site());
+        assertTrue(releaseTime.appliesTo("http://test.com/schedule"));
+        assertFalse(releaseTime.appliesTo("http://other.com/schedule"));
+        assertTrue("No site means every site", ReleaseTime.parse("SUN 09:00").appliesTo("http://other.com/schedule"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsMalformedText() {
+        ReleaseTime.parse("09:00");
+    }
+
+    @Test
+    public void testNextAfterLaterInSameWeek() {
+        ZonedDateTime friday = ZonedDateTime.of(2025, 11, 14, 12, 0, 0, 0, ZONE);
+
+        ZonedDateTime next = ReleaseTime.parse("SUN 09:00").nextAfter(friday);
+
+        assertEquals(ZonedDateTime.of(2025, 11, 16, 9, 0, 0, 0, ZONE), next);
+    }
+
+    @Test
+    public void testNextAfterRollsToFollowingWeek() {
+        ZonedDateTime sundayAtRelease = ZonedDateTime.of(2025, 11, 16, 9, 0, 0, 0, ZONE);
+
+        ZonedDateTime next = ReleaseTime.parse("SUN 09:00").nextAfter(sundayAtRelease);
+
+        assertEquals(ZonedDateTime.of(2025, 11, 23, 9, 0, 0, 0, ZONE), next);
+    }
+}
@@ -0,0 +1,222 @@
+package com.autosignup.core;
+
+import com.autosignup.model.Appointment;
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.SnipeResult;
+import com.autosignup.model.WebsiteSpecs;
+import com.autosignup.model.config.NavigatorConfig;
+import com.autosignup.model.config.SlotConfig;
+import com.autosignup.model.protocol.ProtocolFactory;
+import com.autosignup.model.protocol.TypeWeeksBasedProtocol;
+import com.autosignup.model.protocol.ValidityVerdict;
+import com.autosignup.navigators.WebsiteNavigator;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.util.PlaywrightPool;
+import com.autosignup.util.PlaywrightWrapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class TestRunFlow {
+    private static final String TEST_DB_PATH = "test-run-flow.db";
+    private BotDBManager botDBManager;
+
+    @Before
+    public void setup() {
+        new File(TEST_DB_PATH).delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+    }
+
+    @After
+    public void teardown() {
+        botDBManager.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    // Serves a fixed list of slots and books every signup it is asked for
+    private static class StubNavigator extends WebsiteNavigator {
+        private final List<LocalDateTime> starts;
+        final List<Appointment> attempted = new ArrayList<>();
+        final List<String> scannedUrls = new ArrayList<>();
+        // Slots re-checked by runFlow after the scan
+        final List<LocalDateTime> checked = new ArrayList<>();
+        Runnable duringSignup = () -> { };
+
+        StubNavigator(BotDBManager db, List<LocalDateTime> starts) {
+            super(new ProtocolFactory(db), AppointmentType.MASSAGE, new PlaywrightPool(new PlaywrightWrapper(), 1), db);
+            this.starts = starts;
+            this.protocol = new TypeWeeksBasedProtocol(db, 1) {
+                @Override
+                public List<ValidityVerdict> checkValidity(List<SlotInfo> slots) {
+                    slots.forEach(slot -> checked.add(slot.start()));
+                    return super.checkValidity(slots);
+                }
+            };
+            List<SlotConfig> allWeek = new ArrayList<>();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                allWeek.add(new SlotConfig(day.name(), "00:00", "23:59"));
+            }
+            this.navigatorConfig = new NavigatorConfig(allWeek);
+            websites.add(new WebsiteSpecs(protocol, "http://stub.test", AppointmentType.MASSAGE, null));
+            websites.add(new WebsiteSpecs(protocol, "http://other.test", AppointmentType.MASSAGE, null));
+        }
+
+        @Override
+        public List<Appointment> navigate(List<WebsiteSpecs> sites) {
+            sites.forEach(site -> scannedUrls.add(site.url()));
+            List<SlotInfo> slots = new ArrayList<>();
+            for (LocalDateTime start : starts) {
+                slots.add(new SlotInfo(null, start.getDayOfWeek().toString(), start.toLocalTime().toString(),
+                        start, start.plusHours(1), true, AppointmentType.MASSAGE, "http://stub.test"));
+            }
+            // Like the real navigators, only hand runFlow the slots the protocol accepts
+            List<Appointment> appointments = new ArrayList<>();
+            for (ValidityVerdict verdict : protocol.checkValidity(slots)) {
+                if (verdict.valid()) {
+                    LocalDateTime start = verdict.slot().start();
+                    Appointment appointment = new Appointment(start, start.plusHours(1), "Massage", "Massage", "", "", AppointmentType.MASSAGE);
+                    appointments.add(appointment);
+                    appointmentToSlotMap.put(appointment, verdict.slot());
+                }
+            }
+            checked.clear();
+            return appointments;
+        }
+
+        @Override
+        public boolean signup(Appointment appointment) {
+            attempted.add(appointment);
+            duringSignup.run();
+            return true;
+        }
+    }
+
+    @Test
+    public void testBookingOnlyInvalidatesCandidatesInItsWeek() {
+        // 2025-11-10 is a Monday; three slots that week, two the next
+        LocalDateTime monday = LocalDateTime.of(2025, 11, 10, 10, 0);
+        List<LocalDateTime> starts = List.of(monday, monday.plusDays(1), monday.plusDays(2),
+                monday.plusDays(7), monday.plusDays(8));
+        StubNavigator navigator = new StubNavigator(botDBManager, starts);
+
+        List<Appointment> booked = navigator.runFlow();
+
+        assertEquals(2, booked.size());
+        assertEquals(monday, booked.get(0).start());
+        assertEquals(monday.plusDays(7), booked.get(1).start());
+        assertEquals("Invalidated candidates must not be attempted", booked, navigator.attempted);
+        assertEquals("Only candidates in a booked week are re-checked",
+                Set.of(monday.plusDays(1), monday.plusDays(2), monday.plusDays(8)), Set.copyOf(navigator.checked));
+        assertEquals(3, navigator.checked.size());
+    }
+
+    @Test
+    public void testSpentBudgetStartsNoBooking() {
+        LocalDateTime monday = LocalDateTime.of(2025, 11, 10, 10, 0);
+        StubNavigator navigator = new StubNavigator(botDBManager, List.of(monday, monday.plusDays(7)));
+
+        List<Appointment> booked = navigator.runAll(navigator.getWebsites(), Duration.ZERO);
+
+        assertTrue(booked.isEmpty());
+        assertTrue(navigator.attempted.isEmpty());
+    }
+
+    @Test
+    public void testStopDuringBookingKeepsThatBooking() {
+        LocalDateTime monday = LocalDateTime.of(2025, 11, 10, 10, 0);
+        StubNavigator navigator = new StubNavigator(botDBManager, List.of(monday, monday.plusDays(7), monday.plusDays(14)));
+        navigator.duringSignup = navigator::requestStop;
+
+        List<Appointment> booked = navigator.runAll(navigator.getWebsites(), Duration.ofMinutes(10));
+
+        assertEquals("The booking in progress completes and is returned", List.of(monday),
+                booked.stream().map(Appointment::start).toList());
+        assertEquals(1, navigator.attempted.size());
+
+        navigator.duringSignup = () -> { };
+        navigator.requestStop();
+        // The first week is taken now, so a run that is not stopped books the other two
+        assertEquals("A stop between runs does not carry over", 2,
+                navigator.runAll(navigator.getWebsites(), Duration.ofMinutes(10)).size());
+    }
+
+    @Test
+    public void testSnipeRefreshesOnlyTheReleasingSite() throws InterruptedException {
+        LocalDateTime monday = LocalDateTime.of(2025, 11, 10, 10, 0);
+        StubNavigator navigator = new StubNavigator(botDBManager, List.of(monday));
+        WebsiteSpecs releasing = navigator.getWebsites().get(0);
+
+        SnipeResult result = navigator.snipe(List.of(releasing), Instant.now(), 10, Duration.ofSeconds(5));
+
+        assertNotNull(result.booked());
+        assertEquals("Warm-up and one refresh, both on the releasing site only",
+                List.of(releasing.url(), releasing.url()), navigator.scannedUrls);
+    }
+
+    @Test
+    public void testSnipeStopsARunningSweepAndTakesOver() throws Exception {
+        LocalDateTime monday = LocalDateTime.of(2025, 11, 10, 10, 0);
+        StubNavigator navigator = new StubNavigator(botDBManager, List.of(monday, monday.plusDays(7), monday.plusDays(14)));
+        CountDownLatch inSignup = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        navigator.duringSignup = () -> {
+            if (first.getAndSet(false)) {
+                inSignup.countDown();
+                sleep(300);
+            }
+        };
+        CompletableFuture<List<Appointment>> sweep = CompletableFuture.supplyAsync(
+                () -> navigator.runAll(navigator.getWebsites(), Duration.ofMinutes(10)));
+        assertTrue(inSignup.await(5, TimeUnit.SECONDS));
+
+        SnipeResult result = navigator.snipe(navigator.getWebsites().subList(0, 1), Instant.now().plusSeconds(2), 10, Duration.ofSeconds(5));
+
+        assertEquals("The sweep finishes its booking and gives way", 1, sweep.get(5, TimeUnit.SECONDS).size());
+        assertNotNull(result.booked());
+        assertEquals(monday.plusDays(7), result.booked().start());
+    }
+
+    @Test
+    public void testSweepDuringSnipeIsSkipped() throws Exception {
+        LocalDateTime monday = LocalDateTime.of(2025, 11, 10, 10, 0);
+        StubNavigator navigator = new StubNavigator(botDBManager, List.of(monday, monday.plusDays(7)));
+        AtomicReference<List<Appointment>> sweepResult = new AtomicReference<>();
+        navigator.duringSignup = () -> {
+            if (sweepResult.get() == null) {
+                sweepResult.set(CompletableFuture.supplyAsync(
+                        () -> navigator.runAll(navigator.getWebsites(), Duration.ofMinutes(10))).join());
+            }
+        };
+
+        SnipeResult result = navigator.snipe(navigator.getWebsites().subList(0, 1), Instant.now(), 10, Duration.ofSeconds(5));
+
+        assertNotNull(result.booked());
+        assertEquals("A sweep does not queue behind a snipe", List.of(), sweepResult.get());
+        assertEquals(1, navigator.attempted.size());
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.autosignup.core;
+
+import com.autosignup.util.SchemaMigrator;
+import com.autosignup.util.SchemaMigrator.Migration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestSchemaMigrator {
+    private Connection connection;
+
+    @Before
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @After
+    public void teardown() throws SQLException {
+        connection.close();
+    }
+
+    private static Migration sql(int version, String... statements) {
+        return Migration.code(version, "test " + version, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String statement : statements) {
+                    stmt.execute(statement);
+                }
+            }
+        });
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    @Test
+    public void testPendingMigrationsRunOnce() throws SQLException {
+        List<Migration> migrations = new ArrayList<>(List.of(
+                sql(1, "CREATE TABLE items (id INTEGER PRIMARY KEY, name TEXT)"),
+                sql(2, "INSERT INTO items (name) VALUES ('first')")));
+
+        assertEquals(2, new SchemaMigrator(connection, migrations, 10).migrate());
+        assertEquals(0, new SchemaMigrator(connection, migrations, 10).migrate());
+
+        migrations.add(sql(3, "INSERT INTO items (name) VALUES ('second')"));
+        SchemaMigrator migrator = new SchemaMigrator(connection, migrations, 10);
+        assertEquals(1, migrator.migrate());
+        assertEquals(3, migrator.currentVersion());
+        assertEquals(2, count("SELECT COUNT(*) FROM items"));
+    }
+
+    @Test
+    public void testFailedMigrationLeavesNothingBehind() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(connection, List.of(
+                sql(1, "CREATE TABLE items (id INTEGER PRIMARY KEY)"),
+                sql(2, "CREATE TABLE extra (id INTEGER)", "INSERT INTO missing VALUES (1)")), 10);
+
+        try {
+            migrator.migrate();
+            fail("Expected the second migration to fail");
+        } catch (SQLException e) {
+            assertTrue(e.getMessage().contains("V2"));
+        }
+
+        assertEquals(1, migrator.currentVersion());
+        assertEquals(0, count("SELECT COUNT(*) FROM sqlite_master WHERE name = 'extra'"));
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    public void testChunkedMigrationWalksKeysInBatches() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE items (id INTEGER PRIMARY KEY, done INTEGER NOT NULL DEFAULT 0)");
+            for (int i = 0; i < 25; i++) {
+                stmt.execute("INSERT INTO items DEFAULT VALUES");
+            }
+        }
+        List<Long> batchStarts = new ArrayList<>();
+        // Leaves every id divisible by 4 untouched; a batch that changes nothing must still move on
+        Migration backfill = Migration.chunked(1, "mark done", (conn, afterId, batchSize) -> {
+            batchStarts.add(afterId);
+            try (Statement stmt = conn.createStatement()) {
+                long lastId;
+                try (ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM (SELECT id FROM items WHERE id > " + afterId +
+                        " ORDER BY id LIMIT " + batchSize + ")")) {
+                    rs.next();
+                    lastId = rs.getLong(1);
+                    if (rs.wasNull()) {
+                        return afterId;
+                    }
+                }
+                stmt.executeUpdate("UPDATE items SET done = 1 WHERE id > " + afterId + " AND id <= " + lastId + " AND id % 4 != 0");
+                return lastId;
+            }
+        });
+
+        new SchemaMigrator(connection, List.of(backfill), 10).migrate();
+
+        assertEquals(List.of(0L, 10L, 20L, 25L), batchStarts);
+        assertEquals(6, count("SELECT COUNT(*) FROM items WHERE done = 0"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVersionsMustIncrease() {
+        new SchemaMigrator(connection, List.of(sql(2), sql(1)), 10);
+    }
+}
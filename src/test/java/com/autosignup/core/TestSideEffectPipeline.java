@@ -0,0 +1,84 @@
+package com.autosignup.core;
+
+import com.autosignup.service.SideEffectPipeline;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestSideEffectPipeline {
+    private SideEffectPipeline pipeline;
+
+    @Before
+    public void setup() {
+        pipeline = new SideEffectPipeline(2, 10);
+        pipeline.setBackoffMs(5);
+        pipeline.setMaxAttempts(3);
+    }
+
+    @Test
+    public void testFailingTaskIsRetriedUntilItSucceeds() {
+        AtomicInteger calls = new AtomicInteger();
+        pipeline.submit("flaky", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new RuntimeException("transient");
+            }
+        });
+        pipeline.close();
+
+        assertEquals(3, calls.get());
+        assertEquals(1, pipeline.snapshot().completed());
+        assertEquals(2, pipeline.snapshot().retries());
+        assertEquals(0, pipeline.snapshot().failed());
+    }
+
+    @Test
+    public void testTaskGivesUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+        pipeline.submit("broken", () -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("permanent");
+        });
+        pipeline.close();
+
+        assertEquals(3, calls.get());
+        assertEquals(1, pipeline.snapshot().failed());
+    }
+
+    @Test
+    public void testTaskWithOwnAttemptLimitIsNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        pipeline.submit("once", () -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("permanent");
+        }, 1);
+        pipeline.close();
+
+        assertEquals(1, calls.get());
+        assertEquals(0, pipeline.snapshot().retries());
+    }
+
+    @Test
+    public void testCloseDrainsQueuedTasks() {
+        AtomicInteger done = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            pipeline.submit("task " + i, () -> {
+                sleep(5);
+                done.incrementAndGet();
+            });
+        }
+        pipeline.close();
+
+        assertEquals("Queued and overflowed tasks all ran", 20, done.get());
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
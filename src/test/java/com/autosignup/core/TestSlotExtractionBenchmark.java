@@ -0,0 +1,123 @@
+package com.autosignup.core;
+
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.protocol.ProtocolFactory;
+import com.autosignup.navigators.VarsityMassageNavigator;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.service.ConfigLoaderService;
+import com.autosignup.util.PlaywrightPool;
+import com.autosignup.util.PlaywrightWrapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class TestSlotExtractionBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(TestSlotExtractionBenchmark.class);
+    private static final String TEST_DB_PATH = "test-extraction-benchmark.db";
+    private static final String PAGE_URL = "http://bench.local/schedule";
+    private static final int DAYS = 20;
+    private static final int SLOTS_PER_DAY = 10;
+    private static final int ROUNDS = 5;
+
+    private BotDBManager botDBManager;
+    private PlaywrightWrapper playwright;
+    private PlaywrightPool playwrightPool;
+    private VarsityMassageNavigator navigator;
+
+    @Before
+    public void setup() {
+        File dbFile = new File(TEST_DB_PATH);
+        if (dbFile.exists()) dbFile.delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+
+        playwright = new PlaywrightWrapper();
+        playwrightPool = new PlaywrightPool(playwright, 1);
+        navigator = new VarsityMassageNavigator(new ProtocolFactory(botDBManager), playwrightPool,
+                new ConfigLoaderService(), botDBManager);
+
+        playwright.getPage().setContent(buildSchedulePage());
+        // Done once up front so the per-element timings do not include any page-wide evaluate
+        navigator.tagBanners(playwright);
+    }
+
+    @After
+    public void teardown() {
+        if (playwrightPool != null) {
+            playwrightPool.close();
+        }
+        if (botDBManager != null) {
+            botDBManager.close();
+        }
+        File dbFile = new File(TEST_DB_PATH);
+        if (dbFile.exists()) dbFile.delete();
+    }
+
+    @Test
+    public void testBatchedExtractionMatchesPerElementParse() {
+        List<SlotInfo> perElement = navigator.parseSlotsPerElement(playwright, PAGE_URL);
+        List<SlotInfo> batched = navigator.extractSlotsBatched(playwright, PAGE_URL);
+
+        assertEquals("Both paths should parse every slot", DAYS * SLOTS_PER_DAY, perElement.size());
+        assertEquals("Both paths should parse the same number of slots", perElement.size(), batched.size());
+        for (int i = 0; i < perElement.size(); i++) {
+            assertEquals(perElement.get(i).start(), batched.get(i).start());
+            assertEquals(perElement.get(i).day(), batched.get(i).day());
+            assertEquals(perElement.get(i).available(), batched.get(i).available());
+            assertNotNull("Batched slots should carry a stable locator", batched.get(i).locator());
+        }
+    }
+
+    @Test
+    public void benchmarkPerPageParseTime() {
+        // Warm up both paths once so JIT and page caches do not skew the first round
+        navigator.parseSlotsPerElement(playwright, PAGE_URL);
+        navigator.extractSlotsBatched(playwright, PAGE_URL);
+
+        long perElementNanos = 0;
+        long batchedNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            navigator.parseSlotsPerElement(playwright, PAGE_URL);
+            perElementNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            navigator.extractSlotsBatched(playwright, PAGE_URL);
+            batchedNanos += System.nanoTime() - start;
+        }
+
+        long perElementMs = perElementNanos / ROUNDS / 1_000_000;
+        long batchedMs = batchedNanos / ROUNDS / 1_000_000;
+        // Reported only: wall-clock comparisons are too noisy to assert on shared build machines
+        logger.info("Parse time for {} slots: per-element {} ms/page, batched {} ms/page",
+                DAYS * SLOTS_PER_DAY, perElementMs, batchedMs);
+    }
+
+    private String buildSchedulePage() {
+        DateTimeFormatter bannerFormat = DateTimeFormatter.ofPattern("EEE, MMMM d, yyyy", Locale.ENGLISH);
+        LocalDate date = LocalDate.of(2025, 11, 10);
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (int day = 0; day < DAYS; day++) {
+            html.append("<div class='date-banner'>").append(date.plusDays(day).format(bannerFormat)).append("</div>");
+            for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                int hour = 8 + slot;
+                String time = String.format("%d:00 %s", hour > 12 ? hour - 12 : hour, hour >= 12 ? "PM" : "AM");
+                html.append("<div class='first-row'><time>").append(time).append("</time>");
+                if (slot % 3 != 0) {
+                    html.append("<button data-i18n='_SignUp_'>Sign Up</button>");
+                }
+                html.append("</div>");
+            }
+        }
+        return html.append("</body></html>").toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.autosignup.core;
+
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.util.SlotJsonParser;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestSlotJsonParser {
+    private static final String SOURCE_URL = "http://test.com/schedule";
+    private final SlotJsonParser parser = new SlotJsonParser("start", "end", "available", ZoneId.of("America/Vancouver"));
+
+    @Test
+    public void testParsesNestedRecords() {
+        String body = """
+                {"data": {"days": [
+                  {"label": "Monday", "spots": [
+                    {"start": "2025-11-10T14:00:00", "end": "2025-11-10T15:00:00", "available": true},
+                    {"start": "2025-11-10T15:00:00", "end": "2025-11-10T16:00:00", "available": false}
+                  ]}
+                ]}}
+                """;
+
+        List<SlotInfo> slots = parser.parse(List.of(body), AppointmentType.MASSAGE, SOURCE_URL);
+
+        assertEquals("Both nested records should be parsed", 2, slots.size());
+        SlotInfo first = slots.get(0);
+        assertEquals(LocalDateTime.of(2025, 11, 10, 14, 0), first.start());
+        assertEquals(LocalDateTime.of(2025, 11, 10, 15, 0), first.end());
+        assertEquals("Mon", first.day());
+        assertEquals("14:00", first.time());
+        assertTrue(first.available());
+        assertEquals(AppointmentType.MASSAGE, first.appointmentType());
+        assertEquals(SOURCE_URL, first.sourceUrl());
+        assertFalse("Second record is full", slots.get(1).available());
+    }
+
+    @Test
+    public void testOffsetTimestampsAreConvertedToLocalZone() {
+        String body = "[{\"start\": \"2025-11-10T22:00:00Z\", \"available\": 3}]";
+
+        List<SlotInfo> slots = parser.parse(List.of(body), AppointmentType.MASSAGE, SOURCE_URL);
+
+        assertEquals(1, slots.size());
+        assertEquals("UTC 22:00 is 14:00 in Vancouver", LocalDateTime.of(2025, 11, 10, 14, 0), slots.get(0).start());
+        assertEquals("Missing end defaults to one hour", LocalDateTime.of(2025, 11, 10, 15, 0), slots.get(0).end());
+        assertTrue("Positive spot count means available", slots.get(0).available());
+    }
+
+    @Test
+    public void testZeroSpotsIsUnavailable() {
+        String body = "[{\"start\": \"2025-11-10 14:00:00\", \"available\": 0}]";
+
+        List<SlotInfo> slots = parser.parse(List.of(body), AppointmentType.MASSAGE, SOURCE_URL);
+
+        assertEquals(1, slots.size());
+        assertFalse(slots.get(0).available());
+    }
+
+    @Test
+    public void testMalformedPayloadsAreSkipped() {
+        String good = "[{\"start\": \"2025-11-10T14:00:00\"}]";
+
+        List<SlotInfo> slots = parser.parse(List.of("<html>not json</html>", "[{\"start\": \"soon\"}]", good),
+                AppointmentType.MASSAGE, SOURCE_URL);
+
+        assertEquals("Only the well-formed record should survive", 1, slots.size());
+        assertTrue("Records without an availability field are treated as available", slots.get(0).available());
+    }
+}
@@ -0,0 +1,99 @@
+package com.autosignup.core;
+
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.service.BotDBManager;
+import com.autosignup.service.SlotObservationRecorder;
+import com.autosignup.util.ParameterBinder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestSlotObservationRecorder {
+    private static final String TEST_DB_PATH = "test-observations.db";
+    private BotDBManager botDBManager;
+
+    @Before
+    public void setup() {
+        new File(TEST_DB_PATH).delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+    }
+
+    @After
+    public void teardown() {
+        botDBManager.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    private static List<SlotInfo> slots(int count) {
+        LocalDateTime first = LocalDateTime.of(2025, 11, 10, 8, 0);
+        List<SlotInfo> slots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = first.plusMinutes(30L * i);
+            slots.add(new SlotInfo(null, start.getDayOfWeek().toString(), start.toLocalTime().toString(),
+                    start, start.plusMinutes(30), i % 3 == 0, AppointmentType.MASSAGE, "http://a.test"));
+        }
+        return slots;
+    }
+
+    private long count(String where) throws SQLException {
+        return botDBManager.queryFirst("SELECT COUNT(*) FROM slot_observations " + where, ParameterBinder.NONE,
+                rs -> rs.getLong(1)).orElse(0L);
+    }
+
+    @Test
+    public void testSweepIsWrittenOnFlush() throws SQLException {
+        SlotObservationRecorder recorder = new SlotObservationRecorder(botDBManager);
+        Instant seenAt = Instant.ofEpochSecond(1_762_761_600L);
+
+        recorder.record("http://a.test", slots(150), seenAt);
+        recorder.record("http://b.test", slots(100), seenAt);
+        assertEquals("Nothing is written before the sweep ends", 0, count(""));
+
+        assertEquals(250, recorder.flush());
+        assertEquals(250, count(""));
+        assertEquals(100, count("WHERE site_url = 'http://b.test'"));
+        assertEquals(84, count("WHERE available = 1"));
+        assertEquals(250, count("WHERE seen_at = " + seenAt.getEpochSecond()));
+        assertEquals(1, recorder.snapshot().flushes());
+        assertEquals(0, recorder.flush());
+    }
+
+    @Test
+    public void testObservationsWithoutTimesAreSkipped() throws SQLException {
+        List<SlotInfo> slots = new ArrayList<>(slots(2));
+        slots.add(new SlotInfo(null, "MONDAY", "?", null, null, true, AppointmentType.MASSAGE, "http://a.test"));
+        SlotObservationRecorder recorder = new SlotObservationRecorder(botDBManager);
+
+        recorder.record("http://a.test", slots, Instant.now());
+
+        assertEquals(2, recorder.flush());
+        assertEquals(2, count(""));
+    }
+
+    @Test
+    public void testFullBufferDropsInsteadOfWriting() throws SQLException {
+        SlotObservationRecorder recorder = new SlotObservationRecorder(botDBManager);
+        recorder.setMaxBuffered(100);
+        Instant seenAt = Instant.now();
+
+        recorder.record("http://a.test", slots(80), seenAt);
+        recorder.record("http://b.test", slots(50), seenAt);
+        assertEquals("A full buffer must not be written by the scanning thread", 0, count(""));
+        assertEquals(100, recorder.snapshot().buffered());
+        assertEquals(30, recorder.snapshot().dropped());
+
+        assertEquals(100, recorder.flush());
+        recorder.record("http://a.test", slots(10), seenAt);
+        assertEquals("The buffer accepts rows again after the sweep flushes", 10, recorder.snapshot().buffered());
+    }
+}
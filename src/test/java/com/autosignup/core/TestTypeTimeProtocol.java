@@ -0,0 +1,64 @@
+package com.autosignup.core;
+
+import com.autosignup.model.Appointment;
+import com.autosignup.model.AppointmentType;
+import com.autosignup.model.Signup;
+import com.autosignup.model.SlotInfo;
+import com.autosignup.model.protocol.TypeTimeBasedProtocol;
+import com.autosignup.model.protocol.ValidityVerdict;
+import com.autosignup.service.BotDBManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestTypeTimeProtocol {
+    private static final String TEST_DB_PATH = "test-time-protocol.db";
+    private BotDBManager botDBManager;
+    private TypeTimeBasedProtocol protocol;
+
+    @Before
+    public void setup() {
+        new File(TEST_DB_PATH).delete();
+        botDBManager = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH);
+        protocol = new TypeTimeBasedProtocol(botDBManager, 24);
+    }
+
+    @After
+    public void teardown() {
+        botDBManager.close();
+        new File(TEST_DB_PATH).delete();
+    }
+
+    private SlotInfo slot(LocalDateTime start, AppointmentType type) {
+        return new SlotInfo(null, start.getDayOfWeek().toString(), start.toLocalTime().toString(),
+                start, start.plusHours(1), true, type, "http://test.com");
+    }
+
+    @Test
+    public void testSlotsNearExistingAppointmentAreRejected() {
+        LocalDateTime booked = LocalDateTime.of(2025, 11, 12, 10, 0);
+        botDBManager.recordSignup(new Signup("www.test.com",
+                new Appointment(booked, booked.plusHours(1), "Test", "Test", "Test", "Test", AppointmentType.MASSAGE)));
+
+        List<ValidityVerdict> verdicts = protocol.checkValidity(List.of(
+                slot(booked.minusHours(30), AppointmentType.MASSAGE),
+                slot(booked.minusHours(20), AppointmentType.MASSAGE),
+                slot(booked.plusHours(24), AppointmentType.MASSAGE),
+                slot(booked.plusHours(25), AppointmentType.MASSAGE),
+                slot(booked, AppointmentType.PHYSIO)));
+
+        assertTrue(verdicts.get(0).valid());
+        assertFalse(verdicts.get(1).valid());
+        assertNotNull(verdicts.get(1).reason());
+        assertFalse(verdicts.get(2).valid());
+        assertTrue(verdicts.get(3).valid());
+        assertTrue(verdicts.get(4).valid());
+        assertFalse(protocol.checkValidity(slot(booked.plusHours(3), AppointmentType.MASSAGE)));
+    }
+}
@@ -4,13 +4,18 @@ import com.autosignup.model.AppointmentType;
 import com.autosignup.model.SlotInfo;
 import com.autosignup.model.Signup;
 import com.autosignup.model.protocol.TypeWeeksBasedProtocol;
+import com.autosignup.model.protocol.ValidityVerdict;
 import com.autosignup.service.BotDBManager;
+import com.autosignup.util.BookingIndex;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -237,4 +242,84 @@ public class TestTypeWeeksProtocol {
         boolean isValid = protocol1Week.checkValidity(thirdSlot);
         assertTrue("Appointment outside week window of all existing appointments should be valid", isValid);
     }
+
+    @Test
+    public void testIndexAgreesWithSql() throws SQLException {
+        LocalDateTime base = LocalDateTime.of(2025, 11, 10, 14, 0);
+        for (int i = 0; i < 6; i++) {
+            LocalDateTime start = base.plusDays(9L * i).plusMinutes(15L * i);
+            botDBManager.recordSignup(new Signup(
+                "www.test.com",
+                new com.autosignup.model.Appointment(
+                    start, start.plusMinutes(45 + 15L * i), "Test", "Test", "Test", "Test", AppointmentType.MASSAGE
+                )
+            ));
+        }
+
+        for (int hour = 0; hour < 24 * 70; hour += 7) {
+            LocalDateTime start = base.minusDays(7).plusHours(hour);
+            SlotInfo slot = createTestSlot(start, start.plusHours(1), AppointmentType.MASSAGE, true);
+            assertEquals("Index and SQL disagree for " + start,
+                    SqlValidityReference.isValid(botDBManager, slot, 2), protocol2Weeks.checkValidity(slot));
+        }
+    }
+
+    @Test
+    public void testFallbackWithoutIndexAgreesWithIndex() {
+        LocalDateTime booked = LocalDateTime.of(2025, 11, 12, 10, 0);
+        botDBManager.recordSignup(new Signup(
+            "www.test.com",
+            new com.autosignup.model.Appointment(
+                booked, booked.plusHours(1), "Test", "Test", "Test", "Test", AppointmentType.MASSAGE
+            )
+        ));
+        BotDBManager withoutIndex = new BotDBManager("jdbc:sqlite:" + TEST_DB_PATH) {
+            @Override
+            public BookingIndex getBookingIndex() {
+                return null;
+            }
+        };
+        try {
+            List<SlotInfo> page = new ArrayList<>();
+            for (int day = 0; day < 21; day++) {
+                LocalDateTime start = booked.minusDays(7).plusDays(day);
+                page.add(createTestSlot(start, start.plusHours(1), AppointmentType.MASSAGE, true));
+            }
+            List<ValidityVerdict> fromIndex = protocol2Weeks.checkValidity(page);
+            List<ValidityVerdict> fromSql = new TypeWeeksBasedProtocol(withoutIndex, 2).checkValidity(page);
+            for (int i = 0; i < page.size(); i++) {
+                assertEquals("Fallback disagrees for " + page.get(i).start(), fromIndex.get(i).valid(), fromSql.get(i).valid());
+            }
+        } finally {
+            withoutIndex.close();
+        }
+    }
+
+    @Test
+    public void testBatchVerdictsMatchSingleChecks() throws SQLException {
+        LocalDateTime booked = LocalDateTime.of(2025, 11, 12, 10, 0);
+        botDBManager.recordSignup(new Signup(
+            "www.test.com",
+            new com.autosignup.model.Appointment(
+                booked, booked.plusHours(1), "Test", "Test", "Test", "Test", AppointmentType.MASSAGE
+            )
+        ));
+
+        List<SlotInfo> page = new ArrayList<>();
+        for (int day = 0; day < 21; day++) {
+            LocalDateTime start = booked.minusDays(7).plusDays(day);
+            page.add(createTestSlot(start, start.plusHours(1), AppointmentType.MASSAGE, true));
+        }
+
+        List<ValidityVerdict> verdicts = protocol2Weeks.checkValidity(page);
+        assertEquals(page.size(), verdicts.size());
+        for (int i = 0; i < page.size(); i++) {
+            ValidityVerdict verdict = verdicts.get(i);
+            assertSame(page.get(i), verdict.slot());
+            assertEquals("Batch and SQL disagree for " + verdict.slot().start(),
+                    SqlValidityReference.isValid(botDBManager, page.get(i), 2), verdict.valid());
+            assertEquals(verdict.valid(), verdict.reason() == null);
+        }
+        assertTrue(protocol2Weeks.checkValidity(List.of()).isEmpty());
+    }
 }
@@ -7,6 +7,7 @@ import com.autosignup.navigators.VarsityChiroNavigator;
 import com.autosignup.navigators.VarsityMassageNavigator;
 import com.autosignup.service.BotDBManager;
 import com.autosignup.service.ConfigLoaderService;
+import com.autosignup.util.PlaywrightPool;
 import com.autosignup.util.PlaywrightWrapper;
 import org.junit.After;
 import org.junit.Before;
@@ -30,6 +31,7 @@ public class TestWebsiteNavigator {
     private BotDBManager botDBManager;
     private ProtocolFactory protocolFactory;
     private PlaywrightWrapper playwright;
+    private PlaywrightPool playwrightPool;
     private TestConfigLoaderService configLoader;
     private VarsityMassageNavigator massageNavigator;
     private VarsityChiroNavigator chiroNavigator;
@@ -44,14 +46,15 @@ public class TestWebsiteNavigator {
         protocolFactory = new ProtocolFactory(botDBManager);
         
         playwright = new PlaywrightWrapper();
+        playwrightPool = new PlaywrightPool(playwright, 2);
         
         configLoader = new TestConfigLoaderService();
         configLoader.loadConfig();
         
-        massageNavigator = new VarsityMassageNavigator(protocolFactory, playwright, configLoader, botDBManager);
+        massageNavigator = new VarsityMassageNavigator(protocolFactory, playwrightPool, configLoader, botDBManager);
         massageNavigator.loadConfig();
         
-        chiroNavigator = new VarsityChiroNavigator(protocolFactory, playwright, configLoader, botDBManager);
+        chiroNavigator = new VarsityChiroNavigator(protocolFactory, playwrightPool, configLoader, botDBManager);
         chiroNavigator.loadConfig();
         
         logger.info("Test environment setup complete");
@@ -61,8 +64,8 @@ public class TestWebsiteNavigator {
     public void teardown() {
         logger.info("Tearing down test environment");
         
-        if (playwright != null) {
-            playwright.close();
+        if (playwrightPool != null) {
+            playwrightPool.close();
         }
         
         if (botDBManager != null) {